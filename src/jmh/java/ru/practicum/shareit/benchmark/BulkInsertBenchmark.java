@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comment.model.Comment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkInsertBenchmark {
+
+    @Benchmark
+    public int insertBookings(BulkInsertState bulk) {
+        return bulk.transactionTemplate.execute(status -> {
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            List<Booking> bookings = new ArrayList<>(bulk.rows);
+            for (int i = 0; i < bulk.rows; i++) {
+                bookings.add(Booking.builder()
+                        .start(start.plusHours(i))
+                        .end(start.plusHours(i + 1))
+                        .item(bulk.itemRepository.getReferenceById(bulk.itemIds[i % bulk.itemIds.length]))
+                        .booker(bulk.userRepository.getReferenceById(bulk.userIds[i % bulk.userIds.length]))
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+            return bulk.bookingRepository.saveAll(bookings).size();
+        });
+    }
+
+    @Benchmark
+    public int insertComments(BulkInsertState bulk) {
+        return bulk.transactionTemplate.execute(status -> {
+            LocalDateTime created = LocalDateTime.now();
+            List<Comment> comments = new ArrayList<>(bulk.rows);
+            for (int i = 0; i < bulk.rows; i++) {
+                comments.add(Comment.builder()
+                        .text("comment " + i)
+                        .item(bulk.itemRepository.getReferenceById(bulk.itemIds[i % bulk.itemIds.length]))
+                        .author(bulk.userRepository.getReferenceById(bulk.userIds[i % bulk.userIds.length]))
+                        .created(created)
+                        .build());
+            }
+            return bulk.commentRepository.saveAll(comments).size();
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+@State(Scope.Benchmark)
+public class BulkInsertState {
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param("1000")
+    public int rows;
+
+    public ConfigurableApplicationContext context;
+    public JdbcTemplate jdbcTemplate;
+    public TransactionTemplate transactionTemplate;
+    public UserRepository userRepository;
+    public ItemRepository itemRepository;
+    public BookingRepository bookingRepository;
+    public CommentRepository commentRepository;
+    public long[] itemIds;
+    public long[] userIds;
+    private long maxBookingId;
+    private long maxCommentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:bulk-insert;MODE=PostgreSQL",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "shareit.matching.enabled=false",
+                        "shareit.tracing.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN",
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new DatasetGenerator(jdbcTemplate, Scale.SMALL.toGeneratorProperties(42)).generate();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        itemIds = jdbcTemplate.queryForList("select id from items order by id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        maxBookingId = maxId("bookings");
+        maxCommentId = maxId("comments");
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeInserted() {
+        jdbcTemplate.update("delete from bookings where id > ?", maxBookingId);
+        jdbcTemplate.update("delete from comments where id > ?", maxCommentId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long maxId(String table) {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+    }
+}
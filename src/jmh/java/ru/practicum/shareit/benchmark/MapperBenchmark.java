@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    @Param({"0", "10", "100"})
+    public int comments;
+
+    private Booking booking;
+    private Item item;
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+    private List<Comment> itemComments;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        User booker = new User(2L, "booker", "booker@shareit.ru");
+        item = Item.builder().id(1L).name("drill").description("good drill").available(true).owner(owner).build();
+        booking = new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED);
+        lastBooking = BookingMapper.toBookingDto(booking);
+        nextBooking = BookingMapper.toBookingDto(new Booking(2L, now.plusDays(1), now.plusDays(2), item, booker,
+                BookingStatus.APPROVED));
+        itemComments = new ArrayList<>();
+        for (long i = 0; i < comments; i++) {
+            itemComments.add(new Comment(i, "comment " + i, item, booker, now));
+        }
+    }
+
+    @Benchmark
+    public BookingDtoOutput toBookingDtoOutput() {
+        return BookingMapper.toBookingDtoOutput(booking);
+    }
+
+    @Benchmark
+    public ItemBookingDto toItemBookingDto() {
+        return ItemMapper.toItemBookingDto(item, lastBooking, nextBooking, itemComments);
+    }
+}
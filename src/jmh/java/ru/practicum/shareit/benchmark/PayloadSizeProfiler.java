@@ -0,0 +1,42 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// размер закодированного ответа отдельным результатом: счётчики @AuxCounters(EVENTS) суммируются по итерациям
+public class PayloadSizeProfiler implements InternalProfiler {
+    private static final Map<String, Long> SIZES = new ConcurrentHashMap<>();
+
+    static void record(BenchmarkParams params, long bytes) {
+        SIZES.put(params.id(), bytes);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Размер закодированного ответа в байтах";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        Long bytes = SIZES.get(benchmarkParams.id());
+        if (bytes == null) {
+            return List.of();
+        }
+        return List.of(new ScalarResult("payload.bytes", bytes, "bytes", AggregationPolicy.AVG));
+    }
+}
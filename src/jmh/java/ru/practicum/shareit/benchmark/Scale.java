@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.generator.GeneratorProperties;
+
+@RequiredArgsConstructor
+public enum Scale {
+    SMALL(100, 1_000, 10_000, 100),
+    MEDIUM(1_000, 10_000, 50_000, 1_000),
+    LARGE(10_000, 100_000, 500_000, 10_000);
+
+    private final int users;
+    private final int items;
+    private final long bookings;
+    private final int requests;
+
+    public GeneratorProperties toGeneratorProperties(long seed) {
+        GeneratorProperties properties = new GeneratorProperties();
+        properties.setSeed(seed);
+        properties.setUsers(users);
+        properties.setItems(items);
+        properties.setBookings(bookings);
+        properties.setRequests(requests);
+        return properties;
+    }
+}
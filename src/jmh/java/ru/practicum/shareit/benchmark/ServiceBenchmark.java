@@ -0,0 +1,38 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class OwnerBookingsState {
+        @Param
+        public BookingState state;
+    }
+
+    @Benchmark
+    public List<ItemBookingDto> getUsersItemsWithBookings(ShareItState shareIt) {
+        return shareIt.itemService.getUsersItemsWithBookings(shareIt.ownerId);
+    }
+
+    @Benchmark
+    public Collection<ItemResponseDto> getAvailableItemsDtoByText(ShareItState shareIt) {
+        return shareIt.itemService.getAvailableItemsDtoByText(DatasetGenerator.WORDS[0]);
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> getOwnerBookings(ShareItState shareIt, OwnerBookingsState bookings) {
+        return shareIt.bookingService.getOwnerBookings(shareIt.ownerId, bookings.state);
+    }
+}
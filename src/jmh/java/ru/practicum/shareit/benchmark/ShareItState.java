@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.item.service.ItemService;
+
+@State(Scope.Benchmark)
+public class ShareItState {
+    @Param({"SMALL", "MEDIUM"})
+    public Scale scale;
+
+    @Param("42")
+    public long seed;
+
+    public ConfigurableApplicationContext context;
+    public ItemService itemService;
+    public BookingService bookingService;
+    public long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL",
+                        "shareit.matching.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN",
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        new DatasetGenerator(context.getBean(JdbcTemplate.class), scale.toGeneratorProperties(seed)).generate();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        ownerId = 1L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
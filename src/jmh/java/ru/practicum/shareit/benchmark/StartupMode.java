@@ -0,0 +1,16 @@
+package ru.practicum.shareit.benchmark;
+
+public enum StartupMode {
+    DEFAULT("test"),
+    FAST_START("test", "fast-start");
+
+    private final String[] profiles;
+
+    StartupMode(String... profiles) {
+        this.profiles = profiles;
+    }
+
+    public String[] profiles() {
+        return profiles;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.benchmark;
+
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public String virtualThreadsProperty() {
+        return "spring.threads.virtual.enabled=" + (this == VIRTUAL);
+    }
+}
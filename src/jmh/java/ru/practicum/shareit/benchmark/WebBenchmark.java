@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class WebBenchmark {
+
+    @Benchmark
+    public String getOwnerItems(WebState web) throws Exception {
+        return web.get("/items", web.ownerId);
+    }
+
+    @Benchmark
+    public String getItem(WebState web) throws Exception {
+        return web.get("/items/" + web.itemId, web.ownerId);
+    }
+
+    @Benchmark
+    public String getOwnerBookings(WebState web) throws Exception {
+        return web.get("/bookings/owner?state=ALL", web.ownerId);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.generator.DatasetGenerator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+@State(Scope.Benchmark)
+public class WebState {
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threads;
+
+    @Param("SMALL")
+    public Scale scale;
+
+    @Param("42")
+    public long seed;
+
+    @Param("50")
+    public int tomcatThreads;
+
+    @Param("10")
+    public int poolSize;
+
+    public ConfigurableApplicationContext context;
+    public HttpClient client;
+    public String baseUrl;
+    public long ownerId;
+    public long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        threads.virtualThreadsProperty(),
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "shareit.threads.virtual-pool-size=" + poolSize,
+                        "shareit.threads.virtual-connection-timeout=30s",
+                        "spring.datasource.url=jdbc:h2:mem:web-benchmark;MODE=PostgreSQL",
+                        "shareit.matching.enabled=false",
+                        "shareit.admission.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN",
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new DatasetGenerator(jdbcTemplate, scale.toGeneratorProperties(seed)).generate();
+        ownerId = 1L;
+        itemId = jdbcTemplate.queryForObject("select min(id) from items where owner_id = ?", Long.class, ownerId);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    public String get(String path, long userId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " -> " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.codec.CodecConfig;
+import ru.practicum.shareit.codec.CodecProperties;
+
+public enum WireFormat {
+    JSON(null),
+    CBOR(new CBORFactory()),
+    SMILE(new SmileFactory());
+
+    private final JsonFactory factory;
+
+    WireFormat(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    // те же настройки, что Boot применяет к ObjectMapper приложения
+    public ObjectMapper mapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return factory == null ? builder.build() : CodecConfig.binaryMapper(builder, factory, new CodecProperties());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+    @Param({"JSON", "CBOR", "SMILE"})
+    public WireFormat format;
+
+    @Param({"1000", "10000"})
+    public int bookings;
+
+    private ObjectMapper mapper;
+    private List<BookingDtoOutput> payload;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp(BenchmarkParams params) throws IOException {
+        mapper = format.mapper();
+        LocalDateTime now = LocalDateTime.now();
+        payload = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            UserDto booker = UserDto.builder().id((long) i % 500).name("booker " + i % 500)
+                    .email("booker" + i % 500 + "@shareit.ru").build();
+            ItemDto item = ItemDto.builder().id((long) i % 200).name("item " + i % 200)
+                    .description("description of item " + i % 200).available(true).build();
+            payload.add(new BookingDtoOutput(i, now.plusHours(i), now.plusHours(i + 1), item, booker,
+                    BookingStatus.values()[i % BookingStatus.values().length]));
+        }
+        encoded = mapper.writeValueAsBytes(payload);
+        PayloadSizeProfiler.record(params, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    // DTO ответов без конструктора по умолчанию, поэтому разбор меряем до дерева узлов
+    @Benchmark
+    public JsonNode deserialize() throws IOException {
+        return mapper.readTree(encoded);
+    }
+}
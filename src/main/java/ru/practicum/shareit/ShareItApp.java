@@ -2,12 +2,16 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ShareItApp {
+    private static final int STARTUP_STEPS_CAPACITY = 10_000;
 
     public static void main(String[] args) {
-        SpringApplication.run(ShareItApp.class, args);
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 
 }
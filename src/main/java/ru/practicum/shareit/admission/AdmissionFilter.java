@@ -0,0 +1,137 @@
+package ru.practicum.shareit.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UserRateLimiter rateLimiter;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final long bulkheadRetryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter rateLimitRejections;
+
+    public AdmissionFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = new UserRateLimiter(properties.getRateLimitMaxUsers(), properties.getBurst(),
+                properties.getRequestsPerSecond());
+        this.bulkheadRetryAfterSeconds = Math.max(1, properties.getBulkheadRetryAfter().toSeconds());
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitRejections = rejectionCounter("rate_limit", "all");
+        for (Map.Entry<String, AdmissionProperties.Bulkhead> entry : properties.getBulkheads().entrySet()) {
+            endpoints.add(new Endpoint(entry.getKey(), entry.getValue().getMethod(), entry.getValue().getPath(),
+                    new Bulkhead(entry.getValue()), rejectionCounter("bulkhead", entry.getKey())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            rateLimitRejections.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, toRetryAfterSeconds(waitNanos),
+                    "Превышен лимит запросов пользователя");
+            return;
+        }
+
+        Endpoint endpoint = findEndpoint(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean entered;
+        try {
+            entered = endpoint.bulkhead().tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            endpoint.rejections().increment();
+            log.debug("Запрос {} {} отклонён: эндпоинт {} перегружен",
+                    request.getMethod(), request.getRequestURI(), endpoint.name());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, bulkheadRetryAfterSeconds,
+                    "Эндпоинт перегружен, повторите запрос позже");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            endpoint.bulkhead().exit();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private Endpoint findEndpoint(HttpServletRequest request) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.method().equalsIgnoreCase(request.getMethod())
+                    && pathMatcher.match(endpoint.path(), request.getRequestURI())) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String description)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Ошибка допуска запроса", description));
+    }
+
+    private Counter rejectionCounter(String reason, String endpoint) {
+        return Counter.builder("shareit.admission.rejected")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    private static long clientKey(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header != null) {
+            try {
+                return Long.parseLong(header.trim());
+            } catch (NumberFormatException ignored) {
+                // такой запрос всё равно отклонит контроллер, считаем его по адресу клиента
+            }
+        }
+        return ~(long) request.getRemoteAddr().hashCode();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private record Endpoint(String name, String method, String path, Bulkhead bulkhead, Counter rejections) {
+    }
+}
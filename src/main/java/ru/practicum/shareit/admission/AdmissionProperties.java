@@ -0,0 +1,43 @@
+package ru.practicum.shareit.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private long rateLimitMaxUsers = 100_000;
+    private int burst = 200;
+    private double requestsPerSecond = 100;
+    private Duration bulkheadRetryAfter = Duration.ofSeconds(1);
+    private Map<String, Bulkhead> bulkheads = defaultBulkheads();
+
+    // эндпоинты проверяются по порядку объявления, поэтому порядок фиксирован
+    private static Map<String, Bulkhead> defaultBulkheads() {
+        Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+        bulkheads.put("owner-bookings", new Bulkhead("GET", "/bookings/owner", 8, 16, Duration.ofMillis(200)));
+        bulkheads.put("booker-bookings", new Bulkhead("GET", "/bookings", 8, 16, Duration.ofMillis(200)));
+        bulkheads.put("item-search", new Bulkhead("GET", "/items/search", 8, 16, Duration.ofMillis(200)));
+        bulkheads.put("item-stats", new Bulkhead("GET", "/items/stats", 4, 8, Duration.ofMillis(200)));
+        bulkheads.put("owner-items", new Bulkhead("GET", "/items", 8, 16, Duration.ofMillis(200)));
+        return bulkheads;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bulkhead {
+        private String method;
+        private String path;
+        private int maxConcurrent;
+        private int maxWaiting;
+        private Duration maxWait;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Bulkhead {
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+
+    public Bulkhead(AdmissionProperties.Bulkhead properties) {
+        this.permits = new Semaphore(properties.getMaxConcurrent(), true);
+        this.maxWaiting = properties.getMaxWaiting();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+    }
+
+    public boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+}
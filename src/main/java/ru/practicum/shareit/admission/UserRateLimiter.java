@@ -0,0 +1,41 @@
+package ru.practicum.shareit.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class UserRateLimiter {
+    private final Cache<Long, AtomicLong> theoreticalArrivals;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long origin = System.nanoTime();
+
+    public UserRateLimiter(long maxUsers, int burst, double requestsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+        // состояние, к которому не обращались дольше окна всплеска, равно новому: его можно выбросить
+        this.theoreticalArrivals = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofNanos(burstNanos + intervalNanos))
+                .build();
+    }
+
+    public long tryAcquire(long key) {
+        AtomicLong theoreticalArrival = theoreticalArrivals.get(key, k -> new AtomicLong());
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, now);
+            long allowedAt = base - burstNanos;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
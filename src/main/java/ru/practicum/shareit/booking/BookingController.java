@@ -5,9 +5,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.ResourceVersions;
 
 import java.util.List;
 
@@ -17,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -51,8 +54,12 @@ public class BookingController {
 
     @GetMapping("/owner")
     public List<BookingDtoOutput> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                   @RequestParam(defaultValue = "ALL") BookingState state) {
+                                                   @RequestParam(defaultValue = "ALL") BookingState state,
+                                                   ServletWebRequest request) {
         log.info("Получение списка бронирований для вещей владельца id = {} со статусом {}", ownerId, state);
+        if (resourceVersions.isOwnerBookingsNotModified(request, ownerId, state)) {
+            return null;
+        }
         return bookingService.getOwnerBookings(ownerId, state);
     }
 }
\ No newline at end of file
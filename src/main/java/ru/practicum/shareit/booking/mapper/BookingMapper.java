@@ -4,6 +4,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -38,6 +39,17 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDto toBookingDto(BookingView view) {
+        return new BookingDto(
+                view.getId(),
+                view.getStart(),
+                view.getEnd(),
+                view.getItemId(),
+                view.getBookerId(),
+                view.getStatus()
+        );
+    }
+
     public static BookingDtoOutput toBookingDtoOutput(Booking booking) {
         ItemDto itemDto = ItemMapper.toItemDto(booking.getItem());
         UserDto bookerDto = UserMapper.toUserDto(booking.getBooker());
@@ -52,6 +64,48 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDtoOutput toBookingDtoOutput(BookingView view) {
+        ItemDto itemDto = ItemDto.builder()
+                .id(view.getItemId())
+                .name(view.getItemName())
+                .description(view.getItemDescription())
+                .available(view.getItemAvailable())
+                .build();
+        UserDto bookerDto = UserDto.builder()
+                .id(view.getBookerId())
+                .name(view.getBookerName())
+                .email(view.getBookerEmail())
+                .build();
+
+        return new BookingDtoOutput(
+                view.getId(),
+                view.getStart(),
+                view.getEnd(),
+                itemDto,
+                bookerDto,
+                view.getStatus()
+        );
+    }
+
+    public static BookingView toBookingView(Booking booking) {
+        Item item = booking.getItem();
+        User booker = booking.getBooker();
+        return BookingView.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .itemId(item.getId())
+                .ownerId(item.getOwner().getId())
+                .itemName(item.getName())
+                .itemDescription(item.getDescription())
+                .itemAvailable(item.getAvailable())
+                .bookerId(booker.getId())
+                .bookerName(booker.getName())
+                .bookerEmail(booker.getEmail())
+                .build();
+    }
+
     public static BookingDto toBookingDtoWithDates(LocalDateTime start, LocalDateTime end) {
         return new BookingDto(start, end);
     }
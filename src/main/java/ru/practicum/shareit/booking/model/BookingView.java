@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_view")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingView implements Persistable<Long> {
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private BookingStatus status;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "item_name", nullable = false)
+    private String itemName;
+
+    @Column(name = "item_description", nullable = false)
+    private String itemDescription;
+
+    @Column(name = "item_available")
+    private Boolean itemAvailable;
+
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+
+    @Column(name = "booker_name", nullable = false)
+    private String bookerName;
+
+    @Column(name = "booker_email", nullable = false, length = 512)
+    private String bookerEmail;
+
+    // id берётся у бронирования, поэтому без флага save() сделал бы merge с лишним select
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private boolean created = true;
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        created = false;
+    }
+}
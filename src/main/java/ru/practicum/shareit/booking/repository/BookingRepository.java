@@ -1,44 +1,38 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByItemOwnerId(Long ownerId, Sort sort);
+    @Modifying
+    @Query("update Booking b set b.status = :status where b.id = :bookingId")
+    void updateStatus(@Param("bookingId") Long bookingId, @Param("status") BookingStatus status);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort);
-
-    List<Booking> findByBookerIdAndStartLessThanEqualAndEndGreaterThan(Long bookerId, LocalDateTime now1,
-                                                                       LocalDateTime now2, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartLessThanEqualAndEndGreaterThan(Long ownerId, LocalDateTime now1,
-                                                                          LocalDateTime now2, Sort sort);
-
-    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime end, Sort sort);
-
-    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Sort sort);
-
-    @Query("select case when count(b) > 0 then true else false end from Booking b " +
-            "where b.booker.id = ?1 and b.item.id = ?2 and b.status = 'APPROVED' and b.end < ?3")
-    boolean existsByBookerIdAndItemIdAndStatusApprovedAndEndBefore(Long bookerId, Long itemId, LocalDateTime now);
+    // exists-запрос Spring Data останавливается на первой строке IX_BOOKING_BOOKER_ITEM_END, без count
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                           LocalDateTime end);
 
     @Query("select b from Booking b where b.item.id = ?1 and b.status = 'APPROVED' and b.start < ?2 order by b.end desc")
     List<Booking> findLastBookingByItemId(Long itemId, LocalDateTime now, Sort sort);
@@ -61,4 +55,23 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.start = (SELECT MIN(b2.start) FROM Booking b2 WHERE b2.item.id = b.item.id AND b2.start > :now)")
     List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
                                            @Param("now") LocalDateTime now);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b.item.id as itemId, b.start as start, b.end as end, b.status as status from Booking b " +
+            "where b.item.owner.id = :ownerId and b.status in :statuses and b.start < :to and b.end > :from " +
+            "order by b.start")
+    Stream<BookingSpanView> streamOwnerBookingSpans(@Param("ownerId") Long ownerId,
+                                                    @Param("statuses") Collection<BookingStatus> statuses,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    interface BookingSpanView {
+        Long getItemId();
+
+        LocalDateTime getStart();
+
+        LocalDateTime getEnd();
+
+        BookingStatus getStatus();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Long> {
+    String INSERT_MISSING = "insert into booking_view (booking_id, start_date, end_date, status, item_id, owner_id, " +
+            " item_name, item_description, item_available, booker_id, booker_name, booker_email) " +
+            "select b.id, b.start_date, b.end_date, b.status, b.item_id, i.owner_id, i.name, i.description, " +
+            " i.is_available, b.booker_id, u.name, u.email " +
+            "from bookings b join items i on i.id = b.item_id join users u on u.id = b.booker_id " +
+            "where not exists (select 1 from booking_view v where v.booking_id = b.id)";
+
+    List<BookingView> findByBookerId(Long bookerId, Sort sort);
+
+    List<BookingView> findByOwnerId(Long ownerId, Sort sort);
+
+    List<BookingView> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
+
+    List<BookingView> findByOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort);
+
+    List<BookingView> findByBookerIdAndStartLessThanEqualAndEndGreaterThan(Long bookerId, LocalDateTime now1,
+                                                                           LocalDateTime now2, Sort sort);
+
+    List<BookingView> findByOwnerIdAndStartLessThanEqualAndEndGreaterThan(Long ownerId, LocalDateTime now1,
+                                                                          LocalDateTime now2, Sort sort);
+
+    List<BookingView> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Sort sort);
+
+    List<BookingView> findByOwnerIdAndEndBefore(Long ownerId, LocalDateTime end, Sort sort);
+
+    List<BookingView> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Sort sort);
+
+    List<BookingView> findByOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Sort sort);
+
+    @Modifying
+    @Query("update BookingView v set v.itemName = :name, v.itemDescription = :description, " +
+            "v.itemAvailable = :available where v.itemId = :itemId")
+    void updateItem(@Param("itemId") Long itemId, @Param("name") String name,
+                    @Param("description") String description, @Param("available") Boolean available);
+
+    @Modifying
+    @Query("update BookingView v set v.bookerName = :name, v.bookerEmail = :email where v.bookerId = :bookerId")
+    void updateBooker(@Param("bookerId") Long bookerId, @Param("name") String name, @Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query(value = INSERT_MISSING, nativeQuery = true)
+    int insertMissing();
+}
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingState;
@@ -10,14 +9,19 @@ import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.comment.eligibility.CommentEligibilityIndex;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,15 +30,17 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
-    private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final BookingStorage bookingStorage;
+    private final UserIdentityCache userIdentityCache;
     private final ItemRepository itemRepository;
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private final ResourceVersions resourceVersions;
+    private final OutboxPublisher outboxPublisher;
+    private final CommentEligibilityIndex commentEligibilityIndex;
 
     @Override
     @Transactional
     public BookingDtoOutput createBooking(Long userId, BookingDtoInput bookingDtoInput) {
-        User booker = getUserById(userId);
+        User booker = userIdentityCache.getUserReference(userId);
 
         Item item = itemRepository.findById(bookingDtoInput.getItemId())
                 .orElseThrow(() -> new EntityNotFoundException("Вещь с id " + bookingDtoInput.getItemId() + " не найдена"));
@@ -58,16 +64,20 @@ public class BookingServiceImpl implements BookingService {
 
         Booking booking = BookingMapper.toBooking(bookingDtoInput, item, booker);
         booking.setStatus(BookingStatus.WAITING);
+        resourceVersions.itemChanged(item.getId(), item.getOwner().getId());
 
-        return BookingMapper.toBookingDtoOutput(bookingRepository.save(booking));
+        Booking saved = bookingStorage.addBooking(booking);
+        outboxPublisher.bookingChanged(saved, OutboxEventType.BOOKING_CREATED);
+
+        return BookingMapper.toBookingDtoOutput(saved);
     }
 
     @Override
     @Transactional
     public BookingDtoOutput approveBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = getBookingById(bookingId);
+        BookingView booking = getBookingById(bookingId);
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
+        if (!booking.getOwnerId().equals(userId)) {
             throw new AccessDeniedException("Только владелец вещи может подтверждать бронирование");
         }
 
@@ -75,17 +85,22 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Бронирование уже обработано");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        bookingStorage.updateStatus(booking, approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (approved) {
+            commentEligibilityIndex.bookingApproved(booking.getBookerId(), booking.getItemId(), booking.getEnd());
+        }
+        resourceVersions.itemChanged(booking.getItemId(), userId);
+        outboxPublisher.bookingChanged(booking,
+                approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED);
 
         return BookingMapper.toBookingDtoOutput(booking);
     }
 
     @Override
     public BookingDtoOutput getBookingById(Long userId, Long bookingId) {
-        Booking booking = getBookingById(bookingId);
+        BookingView booking = getBookingById(bookingId);
 
-        if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!booking.getBookerId().equals(userId) && !booking.getOwnerId().equals(userId)) {
             throw new EntityNotFoundException("У вас нет прав для просмотра этого бронирования");
         }
 
@@ -94,81 +109,24 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDtoOutput> getUserBookings(Long userId, BookingState state) {
-        getUserById(userId);
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByBookerId(userId, SORT_BY_START_DESC);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartLessThanEqualAndEndGreaterThan(userId,
-                        now, now, SORT_BY_START_DESC);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBefore(userId, now, SORT_BY_START_DESC);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfter(userId, now, SORT_BY_START_DESC);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, SORT_BY_START_DESC);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, SORT_BY_START_DESC);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
-
-        return bookings.stream()
+        userIdentityCache.checkUserExists(userId);
+        return bookingStorage.getBookerBookings(userId, state, LocalDateTime.now())
+                .stream()
                 .map(BookingMapper::toBookingDtoOutput)
                 .toList();
     }
 
     @Override
     public List<BookingDtoOutput> getOwnerBookings(Long ownerId, BookingState state) {
-        getUserById(ownerId);
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByItemOwnerId(ownerId, SORT_BY_START_DESC);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartLessThanEqualAndEndGreaterThan(
-                        ownerId, now, now, SORT_BY_START_DESC);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBefore(ownerId, now, SORT_BY_START_DESC);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfter(ownerId, now, SORT_BY_START_DESC);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(ownerId, BookingStatus.WAITING, SORT_BY_START_DESC);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, SORT_BY_START_DESC);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
-
-        return bookings.stream()
+        userIdentityCache.checkUserExists(ownerId);
+        return bookingStorage.getOwnerBookings(ownerId, state, LocalDateTime.now())
+                .stream()
                 .map(BookingMapper::toBookingDtoOutput)
                 .toList();
     }
 
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь с id " + userId + " не найден"));
-    }
-
-    private Booking getBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId)
+    private BookingView getBookingById(Long bookingId) {
+        return bookingStorage.getBookingById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование с id " + bookingId + " не найдено"));
     }
-}
\ No newline at end of file
+}
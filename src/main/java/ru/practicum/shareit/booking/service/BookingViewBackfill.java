@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+
+@Slf4j
+public class BookingViewBackfill {
+
+    // отдельная точка входа для баз, куда бронирования попали в обход сервисов уже после автоматического заполнения
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            log.info("Добавлено строк в booking_view: {}", 
+                    context.getBean(BookingViewRepository.class).insertMissing());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingViewMigration implements SmartInitializingSingleton {
+    static final String NAME = "booking_view_backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingViewMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    public void migrate() {
+        if (applied()) {
+            return;
+        }
+        try {
+            // отметка и заполнение в одной транзакции: параллельно стартующий экземпляр ждёт блокировку ключа,
+            // получает нарушение уникальности и пропускает заполнение
+            Integer inserted = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("insert into data_migration (name, applied) values (?, ?)", NAME,
+                        LocalDateTime.now());
+                return jdbcTemplate.update(BookingViewRepository.INSERT_MISSING);
+            });
+            log.info("Заполнение booking_view выполнено, добавлено строк: {}", inserted);
+        } catch (DuplicateKeyException e) {
+            log.debug("Заполнение booking_view уже выполнено другим экземпляром");
+        }
+    }
+
+    private boolean applied() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from data_migration where name = ?",
+                Integer.class, NAME);
+        return count != null && count > 0;
+    }
+}
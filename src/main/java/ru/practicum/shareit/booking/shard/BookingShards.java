@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+public class BookingShards implements AutoCloseable {
+    private final List<Shard> shards;
+    private final ExecutorService executor;
+    private final Duration scatterTimeout;
+
+    public BookingShards(List<Shard> shards, Duration scatterTimeout) {
+        this.shards = List.copyOf(shards);
+        this.scatterTimeout = scatterTimeout;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-shard-", 0).factory());
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public List<Shard> all() {
+        return shards;
+    }
+
+    public Shard forOwner(long ownerId) {
+        return shards.get(Math.floorMod(Long.hashCode(ownerId * 0x9E3779B97F4A7C15L), shards.size()));
+    }
+
+    // номер шарда зашит в id бронирования, поэтому поиск по id не требует опроса всех шардов
+    public Shard forBooking(long bookingId) {
+        return shards.get((int) Math.floorMod(bookingId, (long) shards.size()));
+    }
+
+    public long bookingId(Shard shard, long sequenceValue) {
+        return sequenceValue * shards.size() + shard.index();
+    }
+
+    public <T> List<T> scatter(Function<Shard, T> query) {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(executor.submit(() -> query.apply(shard)));
+        }
+        long deadline = System.nanoTime() + scatterTimeout.toNanos();
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(futures.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Опрос шардов бронирований прерван", e);
+        } catch (TimeoutException e) {
+            throw new DataAccessResourceFailureException("Шарды бронирований не ответили за " + scatterTimeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DataAccessResourceFailureException("Ошибка опроса шардов бронирований", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        shards.forEach(shard -> shard.dataSource().close());
+    }
+
+    public record Shard(int index, HikariDataSource dataSource, NamedParameterJdbcTemplate jdbc,
+                        TransactionTemplate readOnlyTransaction) {
+    }
+}
@@ -0,0 +1,295 @@
+package ru.practicum.shareit.booking.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.shard.BookingShards.Shard;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ShardedBookingStorage implements BookingStorage {
+    private static final String COLUMNS = "id, start_date, end_date, status, item_id, owner_id, item_name, " +
+            "item_description, item_available, booker_id, booker_name, booker_email";
+    private static final Comparator<BookingView> START_DESC = Comparator.comparing(BookingView::getStart)
+            .thenComparing(BookingView::getId)
+            .reversed();
+    private static final RowMapper<BookingView> BOOKING_MAPPER = (rs, rowNum) -> BookingView.builder()
+            .id(rs.getLong("id"))
+            .start(rs.getObject("start_date", LocalDateTime.class))
+            .end(rs.getObject("end_date", LocalDateTime.class))
+            .status(BookingStatus.valueOf(rs.getString("status")))
+            .itemId(rs.getLong("item_id"))
+            .ownerId(rs.getLong("owner_id"))
+            .itemName(rs.getString("item_name"))
+            .itemDescription(rs.getString("item_description"))
+            .itemAvailable(rs.getObject("item_available", Boolean.class))
+            .bookerId(rs.getLong("booker_id"))
+            .bookerName(rs.getString("booker_name"))
+            .bookerEmail(rs.getString("booker_email"))
+            .build();
+
+    private static final String UPDATE_ITEM = "update bookings set item_name = :name, " +
+            "item_description = :description, item_available = :available where item_id = :itemId";
+    private static final String UPDATE_BOOKER = "update bookings set booker_name = :name, booker_email = :email " +
+            "where booker_id = :bookerId";
+
+    private final BookingShards shards;
+
+    @Override
+    public Booking addBooking(Booking booking) {
+        Shard shard = shards.forOwner(booking.getItem().getOwner().getId());
+        Long sequenceValue = shard.jdbc().getJdbcOperations()
+                .queryForObject("select nextval('bookings_seq')", Long.class);
+        booking.setId(shards.bookingId(shard, Objects.requireNonNull(sequenceValue)));
+        BookingView view = BookingMapper.toBookingView(booking);
+        Long bookingId = booking.getId();
+        revertOnRollback(() -> shard.jdbc().update("delete from bookings where id = :id", Map.of("id", bookingId)));
+        shard.jdbc().update("insert into bookings (" + COLUMNS + ") values (:id, :start, :end, :status, :itemId, " +
+                        ":ownerId, :itemName, :itemDescription, :itemAvailable, :bookerId, :bookerName, :bookerEmail)",
+                new MapSqlParameterSource()
+                        .addValue("id", view.getId())
+                        .addValue("start", view.getStart())
+                        .addValue("end", view.getEnd())
+                        .addValue("status", view.getStatus().name())
+                        .addValue("itemId", view.getItemId())
+                        .addValue("ownerId", view.getOwnerId())
+                        .addValue("itemName", view.getItemName())
+                        .addValue("itemDescription", view.getItemDescription())
+                        .addValue("itemAvailable", view.getItemAvailable())
+                        .addValue("bookerId", view.getBookerId())
+                        .addValue("bookerName", view.getBookerName())
+                        .addValue("bookerEmail", view.getBookerEmail()));
+        return booking;
+    }
+
+    @Override
+    public Optional<BookingView> getBookingById(Long bookingId) {
+        return shards.forBooking(bookingId).jdbc()
+                .query("select " + COLUMNS + " from bookings where id = :id", Map.of("id", bookingId),
+                        BOOKING_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public void updateStatus(BookingView booking, BookingStatus status) {
+        Shard shard = shards.forBooking(booking.getId());
+        Map<String, Object> revert = Map.of("id", booking.getId(), "status", status.name(),
+                "previous", booking.getStatus().name());
+        revertOnRollback(() -> shard.jdbc().update("update bookings set status = :previous " +
+                "where id = :id and status = :status", revert));
+        shard.jdbc().update("update bookings set status = :status where id = :id",
+                Map.of("id", booking.getId(), "status", status.name()));
+        booking.setStatus(status);
+    }
+
+    @Override
+    public List<BookingView> getBookerBookings(Long bookerId, BookingState state, LocalDateTime now) {
+        List<List<BookingView>> results = shards.scatter(shard -> findBookings(shard, "booker_id", bookerId,
+                state, now));
+        return mergeByStartDesc(results);
+    }
+
+    @Override
+    public List<BookingView> getOwnerBookings(Long ownerId, BookingState state, LocalDateTime now) {
+        return findBookings(shards.forOwner(ownerId), "owner_id", ownerId, state, now);
+    }
+
+    @Override
+    public Optional<BookingDto> getLastBooking(Long ownerId, Long itemId, LocalDateTime now) {
+        return findFirstBookingDto(ownerId, "select " + COLUMNS + " from bookings " +
+                "where item_id = :itemId and status = 'APPROVED' and start_date < :now " +
+                "order by end_date desc limit 1", itemId, now);
+    }
+
+    @Override
+    public Optional<BookingDto> getNextBooking(Long ownerId, Long itemId, LocalDateTime now) {
+        return findFirstBookingDto(ownerId, "select " + COLUMNS + " from bookings " +
+                "where item_id = :itemId and status = 'APPROVED' and start_date > :now " +
+                "order by start_date limit 1", itemId, now);
+    }
+
+    @Override
+    public Map<Long, BookingDto> getLastBookings(Long ownerId, List<Long> itemIds, LocalDateTime now) {
+        return findBookingDtosByItemId(ownerId, "select " + COLUMNS + " from bookings b " +
+                "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now " +
+                "and b.end_date = (select max(b2.end_date) from bookings b2 " +
+                "where b2.item_id = b.item_id and b2.start_date < :now)", itemIds, now);
+    }
+
+    @Override
+    public Map<Long, BookingDto> getNextBookings(Long ownerId, List<Long> itemIds, LocalDateTime now) {
+        return findBookingDtosByItemId(ownerId, "select " + COLUMNS + " from bookings b " +
+                "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now " +
+                "and b.start_date = (select min(b2.start_date) from bookings b2 " +
+                "where b2.item_id = b.item_id and b2.start_date > :now)", itemIds, now);
+    }
+
+    @Override
+    public boolean hasFinishedBooking(Long ownerId, Long bookerId, Long itemId, LocalDateTime now) {
+        return Boolean.TRUE.equals(shards.forOwner(ownerId).jdbc().queryForObject("select exists (select 1 " +
+                        "from bookings where booker_id = :bookerId and item_id = :itemId and status = 'APPROVED' " +
+                        "and end_date < :now)",
+                Map.of("bookerId", bookerId, "itemId", itemId, "now", now), Boolean.class));
+    }
+
+    @Override
+    public void forEachSpan(Long ownerId, Collection<BookingStatus> statuses, LocalDateTime from, LocalDateTime to,
+                            SpanConsumer consumer) {
+        Shard shard = shards.forOwner(ownerId);
+        Map<String, Object> params = Map.of("ownerId", ownerId, "from", from, "to", to,
+                "statuses", statuses.stream().map(Enum::name).toList());
+        // курсор на стороне базы (fetch size) работает только внутри транзакции
+        shard.readOnlyTransaction().executeWithoutResult(transaction -> shard.jdbc().query(
+                "select item_id, start_date, end_date, status from bookings where owner_id = :ownerId " +
+                        "and status in (:statuses) and start_date < :to and end_date > :from order by start_date",
+                params, (RowCallbackHandler) rs -> consumer.accept(rs.getLong("item_id"),
+                        rs.getObject("start_date", LocalDateTime.class),
+                        rs.getObject("end_date", LocalDateTime.class),
+                        BookingStatus.valueOf(rs.getString("status")))));
+    }
+
+    @Override
+    public void updateItem(Long ownerId, Long itemId, String name, String description, Boolean available) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("itemId", itemId);
+        params.put("name", name);
+        params.put("description", description);
+        params.put("available", available);
+        Shard shard = shards.forOwner(ownerId);
+        shard.jdbc().queryForList("select item_name as name, item_description as description, " +
+                        "item_available as available from bookings where item_id = :itemId limit 1",
+                Map.of("itemId", itemId)).stream().findFirst().ifPresent(previous -> {
+            Map<String, Object> revert = new HashMap<>();
+            revert.put("itemId", itemId);
+            revert.put("name", previous.get("name"));
+            revert.put("description", previous.get("description"));
+            revert.put("available", previous.get("available"));
+            revertOnRollback(() -> shard.jdbc().update(UPDATE_ITEM, revert));
+        });
+        shard.jdbc().update(UPDATE_ITEM, params);
+    }
+
+    @Override
+    public void updateBooker(Long bookerId, String name, String email) {
+        // шарды могут упасть посередине рассылки, поэтому откат регистрируется до неё
+        Map<Shard, Map<String, Object>> previousByShard = new ConcurrentHashMap<>();
+        revertOnRollback(() -> previousByShard.forEach((shard, previous) ->
+                shard.jdbc().update(UPDATE_BOOKER, previous)));
+        shards.scatter(shard -> {
+            shard.jdbc().queryForList("select booker_name as name, booker_email as email from bookings " +
+                            "where booker_id = :bookerId limit 1", Map.of("bookerId", bookerId))
+                    .stream().findFirst().ifPresent(previous -> {
+                        previousByShard.put(shard, Map.of("bookerId", bookerId, "name", previous.get("name"),
+                                "email", previous.get("email")));
+                    });
+            return shard.jdbc().update(UPDATE_BOOKER, Map.of("bookerId", bookerId, "name", name, "email", email));
+        });
+    }
+
+    // шарды пишут в автокоммите мимо транзакции вызывающего, поэтому при её откате запись отменяется явно
+    private static void revertOnRollback(Runnable revert) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    revert.run();
+                } catch (RuntimeException e) {
+                    log.error("Не удалось отменить запись в шарде бронирований после отката транзакции", e);
+                }
+            }
+        });
+    }
+
+    private List<BookingView> findBookings(Shard shard, String userColumn, Long userId, BookingState state,
+                                           LocalDateTime now) {
+        String filter = switch (state) {
+            case ALL -> "";
+            case CURRENT -> " and start_date <= :now and end_date > :now";
+            case PAST -> " and end_date < :now";
+            case FUTURE -> " and start_date > :now";
+            case WAITING, REJECTED -> " and status = :status";
+        };
+        return shard.jdbc().query("select " + COLUMNS + " from bookings where " + userColumn + " = :userId" +
+                        filter + " order by start_date desc, id desc",
+                Map.of("userId", userId, "now", now, "status", state.name()), BOOKING_MAPPER);
+    }
+
+    private Optional<BookingDto> findFirstBookingDto(Long ownerId, String sql, Long itemId, LocalDateTime now) {
+        return shards.forOwner(ownerId).jdbc()
+                .query(sql, Map.of("itemId", itemId, "now", now), BOOKING_MAPPER)
+                .stream()
+                .findFirst()
+                .map(BookingMapper::toBookingDto);
+    }
+
+    private Map<Long, BookingDto> findBookingDtosByItemId(Long ownerId, String sql, List<Long> itemIds,
+                                                          LocalDateTime now) {
+        return shards.forOwner(ownerId).jdbc()
+                .query(sql, Map.of("itemIds", itemIds, "now", now), BOOKING_MAPPER)
+                .stream()
+                .collect(Collectors.toMap(BookingView::getItemId, BookingMapper::toBookingDto, (first, second) -> first));
+    }
+
+    // каждый шард уже отсортировал свою часть, остаётся k-way слияние по start desc
+    private static List<BookingView> mergeByStartDesc(List<List<BookingView>> sortedParts) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, sortedParts.size()),
+                (left, right) -> START_DESC.compare(left.head, right.head));
+        int total = 0;
+        for (List<BookingView> part : sortedParts) {
+            total += part.size();
+            if (!part.isEmpty()) {
+                heads.add(new Cursor(part.iterator()));
+            }
+        }
+        List<BookingView> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor {
+        private final Iterator<BookingView> rest;
+        private BookingView head;
+
+        private Cursor(Iterator<BookingView> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+
+        private boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            head = rest.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.booking.sharding", name = "enabled")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public BookingShards bookingShards(ShardingProperties properties, DataSourceProperties dataSourceProperties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("Шардирование бронирований включено, но shareit.booking.sharding.shards пуст");
+        }
+        List<BookingShards.Shard> shards = new ArrayList<>();
+        try {
+            for (int i = 0; i < properties.getShards().size(); i++) {
+                shards.add(shard(i, properties, dataSourceProperties));
+            }
+        } catch (RuntimeException e) {
+            shards.forEach(shard -> shard.dataSource().close());
+            throw e;
+        }
+        return new BookingShards(shards, properties.getScatterTimeout());
+    }
+
+    private static BookingShards.Shard shard(int index, ShardingProperties properties,
+                                             DataSourceProperties dataSourceProperties) {
+        ShardingProperties.Shard shard = properties.getShards().get(index);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("booking-shard-" + index);
+        dataSource.setJdbcUrl(shard.getUrl());
+        dataSource.setUsername(shard.getUsername() != null ? shard.getUsername()
+                : dataSourceProperties.determineUsername());
+        dataSource.setPassword(shard.getPassword() != null ? shard.getPassword()
+                : dataSourceProperties.determinePassword());
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        try {
+            if (properties.isInitializeSchema()) {
+                new ResourceDatabasePopulator(new ClassPathResource("schema-shard.sql")).execute(dataSource);
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            checkLayout(jdbcTemplate, index, properties.getShards().size());
+            jdbcTemplate.setFetchSize(properties.getFetchSize());
+            TransactionTemplate readOnlyTransaction =
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            readOnlyTransaction.setReadOnly(true);
+            return new BookingShards.Shard(index, dataSource, new NamedParameterJdbcTemplate(jdbcTemplate),
+                    readOnlyTransaction);
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+    }
+
+    // номер шарда и их число зашиты в id бронирований: с другой раскладкой поиск по id уйдёт не в тот шард
+    private static void checkLayout(JdbcTemplate jdbcTemplate, int index, int count) {
+        try {
+            jdbcTemplate.update("insert into shard_layout (id, shard_index, shard_count) select 1, ?, ? " +
+                    "where not exists (select 1 from shard_layout)", index, count);
+        } catch (DuplicateKeyException e) {
+            // раскладку одновременно записал другой экземпляр, ниже она будет сверена
+        }
+        Map<String, Object> layout = jdbcTemplate.queryForMap("select shard_index, shard_count from shard_layout " +
+                "where id = 1");
+        int storedIndex = ((Number) layout.get("shard_index")).intValue();
+        int storedCount = ((Number) layout.get("shard_count")).intValue();
+        if (storedIndex != index || storedCount != count) {
+            throw new IllegalStateException("Шард бронирований " + index + " из " + count + " уже размечен как " +
+                    storedIndex + " из " + storedCount + ": изменение числа или порядка шардов требует " +
+                    "переноса данных");
+        }
+    }
+
+    @Bean
+    public BookingStorage shardedBookingStorage(BookingShards bookingShards) {
+        return new ShardedBookingStorage(bookingShards);
+    }
+}
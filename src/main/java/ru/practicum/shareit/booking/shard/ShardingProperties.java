@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    private boolean initializeSchema = true;
+    private Duration scatterTimeout = Duration.ofSeconds(5);
+    private int fetchSize = 500;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
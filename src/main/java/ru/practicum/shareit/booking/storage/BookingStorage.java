@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface BookingStorage {
+
+    Booking addBooking(Booking booking);
+
+    Optional<BookingView> getBookingById(Long bookingId);
+
+    void updateStatus(BookingView booking, BookingStatus status);
+
+    List<BookingView> getBookerBookings(Long bookerId, BookingState state, LocalDateTime now);
+
+    List<BookingView> getOwnerBookings(Long ownerId, BookingState state, LocalDateTime now);
+
+    Optional<BookingDto> getLastBooking(Long ownerId, Long itemId, LocalDateTime now);
+
+    Optional<BookingDto> getNextBooking(Long ownerId, Long itemId, LocalDateTime now);
+
+    Map<Long, BookingDto> getLastBookings(Long ownerId, List<Long> itemIds, LocalDateTime now);
+
+    Map<Long, BookingDto> getNextBookings(Long ownerId, List<Long> itemIds, LocalDateTime now);
+
+    boolean hasFinishedBooking(Long ownerId, Long bookerId, Long itemId, LocalDateTime now);
+
+    void forEachSpan(Long ownerId, Collection<BookingStatus> statuses, LocalDateTime from, LocalDateTime to,
+                     SpanConsumer consumer);
+
+    void updateItem(Long ownerId, Long itemId, String name, String description, Boolean available);
+
+    void updateBooker(Long bookerId, String name, String email);
+
+    @FunctionalInterface
+    interface SpanConsumer {
+        void accept(long itemId, LocalDateTime start, LocalDateTime end, BookingStatus status);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.booking.sharding", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class JpaBookingStorage implements BookingStorage {
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private final BookingRepository bookingRepository;
+    private final BookingViewRepository bookingViewRepository;
+
+    @Override
+    public Booking addBooking(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        bookingViewRepository.save(BookingMapper.toBookingView(saved));
+        return saved;
+    }
+
+    @Override
+    public Optional<BookingView> getBookingById(Long bookingId) {
+        return bookingViewRepository.findById(bookingId);
+    }
+
+    @Override
+    public void updateStatus(BookingView booking, BookingStatus status) {
+        bookingRepository.updateStatus(booking.getId(), status);
+        booking.setStatus(status);
+    }
+
+    @Override
+    public List<BookingView> getBookerBookings(Long bookerId, BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> bookingViewRepository.findByBookerId(bookerId, SORT_BY_START_DESC);
+            case CURRENT -> bookingViewRepository.findByBookerIdAndStartLessThanEqualAndEndGreaterThan(bookerId,
+                    now, now, SORT_BY_START_DESC);
+            case PAST -> bookingViewRepository.findByBookerIdAndEndBefore(bookerId, now, SORT_BY_START_DESC);
+            case FUTURE -> bookingViewRepository.findByBookerIdAndStartAfter(bookerId, now, SORT_BY_START_DESC);
+            case WAITING -> bookingViewRepository.findByBookerIdAndStatus(bookerId, BookingStatus.WAITING,
+                    SORT_BY_START_DESC);
+            case REJECTED -> bookingViewRepository.findByBookerIdAndStatus(bookerId, BookingStatus.REJECTED,
+                    SORT_BY_START_DESC);
+            default -> throw new ValidationException("Unknown state: " + state);
+        };
+    }
+
+    @Override
+    public List<BookingView> getOwnerBookings(Long ownerId, BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> bookingViewRepository.findByOwnerId(ownerId, SORT_BY_START_DESC);
+            case CURRENT -> bookingViewRepository.findByOwnerIdAndStartLessThanEqualAndEndGreaterThan(ownerId,
+                    now, now, SORT_BY_START_DESC);
+            case PAST -> bookingViewRepository.findByOwnerIdAndEndBefore(ownerId, now, SORT_BY_START_DESC);
+            case FUTURE -> bookingViewRepository.findByOwnerIdAndStartAfter(ownerId, now, SORT_BY_START_DESC);
+            case WAITING -> bookingViewRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING,
+                    SORT_BY_START_DESC);
+            case REJECTED -> bookingViewRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED,
+                    SORT_BY_START_DESC);
+            default -> throw new ValidationException("Unknown state: " + state);
+        };
+    }
+
+    @Override
+    public Optional<BookingDto> getLastBooking(Long ownerId, Long itemId, LocalDateTime now) {
+        return bookingRepository.findLastBookingByItemId(itemId, now, Sort.by(Sort.Direction.DESC, "end"))
+                .stream()
+                .findFirst()
+                .map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public Optional<BookingDto> getNextBooking(Long ownerId, Long itemId, LocalDateTime now) {
+        return bookingRepository.findNextBookingByItemId(itemId, now, Sort.by(Sort.Direction.ASC, "start"))
+                .stream()
+                .findFirst()
+                .map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public Map<Long, BookingDto> getLastBookings(Long ownerId, List<Long> itemIds, LocalDateTime now) {
+        return toMapByItemId(bookingRepository.findLastBookingsForItems(itemIds, now));
+    }
+
+    @Override
+    public Map<Long, BookingDto> getNextBookings(Long ownerId, List<Long> itemIds, LocalDateTime now) {
+        return toMapByItemId(bookingRepository.findNextBookingsForItems(itemIds, now));
+    }
+
+    @Override
+    public boolean hasFinishedBooking(Long ownerId, Long bookerId, Long itemId, LocalDateTime now) {
+        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(bookerId, itemId,
+                BookingStatus.APPROVED, now);
+    }
+
+    @Override
+    public void forEachSpan(Long ownerId, Collection<BookingStatus> statuses, LocalDateTime from, LocalDateTime to,
+                            SpanConsumer consumer) {
+        try (Stream<BookingRepository.BookingSpanView> spans =
+                     bookingRepository.streamOwnerBookingSpans(ownerId, statuses, from, to)) {
+            spans.forEach(span -> consumer.accept(span.getItemId(), span.getStart(), span.getEnd(),
+                    span.getStatus()));
+        }
+    }
+
+    @Override
+    public void updateItem(Long ownerId, Long itemId, String name, String description, Boolean available) {
+        bookingViewRepository.updateItem(itemId, name, description, available);
+    }
+
+    @Override
+    public void updateBooker(Long bookerId, String name, String email) {
+        bookingViewRepository.updateBooker(bookerId, name, email);
+    }
+
+    private static Map<Long, BookingDto> toMapByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(
+                        booking -> booking.getItem().getId(),
+                        BookingMapper::toBookingDto
+                ));
+    }
+}
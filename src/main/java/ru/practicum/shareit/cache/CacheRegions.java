@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+public final class CacheRegions {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String ITEMS_BY_OWNER = "items-by-owner";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
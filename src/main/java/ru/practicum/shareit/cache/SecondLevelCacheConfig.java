@@ -0,0 +1,60 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@ConditionalOnProperty(prefix = "shareit.l2-cache", name = "enabled", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        properties.getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            if (region.getExpireAfterWrite() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateCustomizer(CacheManager secondLevelCacheManager,
+                                                                             SecondLevelCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // статистика Hibernate считается на каждую сессию, поэтому включается только явно
+            if (properties.isStatistics()) {
+                hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shareit.l2-cache", name = "statistics", havingValue = "true")
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                                           SecondLevelCacheProperties properties) {
+        return new SecondLevelCacheMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                properties.getRegions().keySet());
+    }
+}
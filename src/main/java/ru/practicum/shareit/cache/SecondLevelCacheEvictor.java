@@ -0,0 +1,33 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictItems() {
+        evictItemRegions();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictItemRegions();
+                }
+            });
+        }
+    }
+
+    private void evictItemRegions() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Item.class);
+        cache.evictQueryRegion(CacheRegions.ITEMS_BY_OWNER);
+    }
+}
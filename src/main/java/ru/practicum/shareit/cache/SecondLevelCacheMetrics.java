@@ -0,0 +1,48 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private final Statistics statistics;
+    private final Collection<String> regions;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regions) {
+            counter(registry, "shareit.l2cache.hits", region, CacheRegionStatistics::getHitCount);
+            counter(registry, "shareit.l2cache.misses", region, CacheRegionStatistics::getMissCount);
+            counter(registry, "shareit.l2cache.puts", region, CacheRegionStatistics::getPutCount);
+            Gauge.builder("shareit.l2cache.hit.ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String region,
+                         ToLongFunction<CacheRegionStatistics> value) {
+        FunctionCounter.builder(name, statistics, stats -> {
+                    CacheRegionStatistics regionStatistics = stats.getCacheRegionStatistics(region);
+                    return regionStatistics == null ? 0 : value.applyAsLong(regionStatistics);
+                })
+                .tag("region", region)
+                .register(registry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+}
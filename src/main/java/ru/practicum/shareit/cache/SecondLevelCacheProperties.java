@@ -0,0 +1,32 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.l2-cache")
+public class SecondLevelCacheProperties {
+    private boolean enabled = true;
+    private boolean statistics = false;
+    // регионы локальны для экземпляра: срок жизни ограничивает, сколько другие экземпляры отдают устаревшие данные
+    private Map<String, Region> regions = new LinkedHashMap<>(Map.of(
+            CacheRegions.USERS, new Region(10_000, Duration.ofSeconds(30)),
+            CacheRegions.ITEMS, new Region(50_000, Duration.ofSeconds(30)),
+            CacheRegions.ITEMS_BY_OWNER, new Region(10_000, Duration.ofSeconds(30)),
+            CacheRegions.QUERY_RESULTS, new Region(1_000, Duration.ofSeconds(30)),
+            CacheRegions.UPDATE_TIMESTAMPS, new Region(1_000, null)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maximumSize;
+        private Duration expireAfterWrite;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+@EnableConfigurationProperties(CodecProperties.class)
+@ConditionalOnProperty(prefix = "shareit.codec", name = "enabled", matchIfMissing = true)
+public class CodecConfig {
+
+    // билдер прототипный: каждый конвертер получает свою копию настроек Boot
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                            CodecProperties properties) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory(), properties));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                              CodecProperties properties) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory(), properties));
+    }
+
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory,
+                                            CodecProperties properties) {
+        // модуль регистрируется последним и перекрывает ISO-сериализацию JavaTimeModule
+        EpochTimeModule epochTime = new EpochTimeModule(properties.getTimeZone());
+        return builder.factory(factory)
+                .postConfigurer(mapper -> mapper.registerModule(epochTime))
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.codec;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.ZoneId;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.codec")
+public class CodecProperties {
+    private boolean enabled = true;
+    // зона, в которой LocalDateTime переводится в epoch millis в бинарных форматах
+    private ZoneId timeZone = ZoneId.systemDefault();
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public class EpochTimeModule extends SimpleModule {
+
+    public EpochTimeModule(ZoneId zone) {
+        super("EpochTimeModule");
+        addSerializer(LocalDateTime.class, new EpochSerializer(zone));
+        addDeserializer(LocalDateTime.class, new EpochDeserializer(zone));
+    }
+
+    private static final class EpochSerializer extends StdScalarSerializer<LocalDateTime> {
+        private final ZoneId zone;
+
+        private EpochSerializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+        }
+    }
+
+    private static final class EpochDeserializer extends StdScalarDeserializer<LocalDateTime> {
+        private final ZoneId zone;
+
+        private EpochDeserializer(ZoneId zone) {
+            super(LocalDateTime.class);
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), zone);
+            }
+            // строки ISO-8601 тоже принимаем, чтобы клиенту не нужно было переписывать даты при смене формата
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.comment.eligibility;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(CommentEligibilityProperties.class)
+public class CommentEligibilityIndex {
+    private static final long MAX_PACKED_ID = Integer.MAX_VALUE;
+
+    private final BookingStorage bookingStorage;
+    private final CommentEligibilityProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // пары, у которых есть завершённое подтверждённое бронирование
+    private final LongHashSet finished = new LongHashSet(1024);
+    // подтверждённые бронирования, которые ещё не закончились, по времени окончания
+    private final PriorityQueue<Approved> approved = new PriorityQueue<>(Comparator.comparing(Approved::end));
+    private volatile LocalDateTime nextEnd;
+    private final Counter hits;
+    private final Counter probes;
+
+    public CommentEligibilityIndex(BookingStorage bookingStorage, CommentEligibilityProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.bookingStorage = bookingStorage;
+        this.properties = properties;
+        this.hits = Counter.builder("shareit.comments.eligibility")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.probes = Counter.builder("shareit.comments.eligibility")
+                .tag("result", "probe")
+                .register(meterRegistry);
+    }
+
+    public boolean hasFinishedBooking(Long ownerId, Long bookerId, Long itemId, LocalDateTime now) {
+        long key = key(bookerId, itemId);
+        if (!properties.isEnabled() || key == 0) {
+            return bookingStorage.hasFinishedBooking(ownerId, bookerId, itemId, now);
+        }
+        promoteFinished(now);
+        lock.readLock().lock();
+        try {
+            if (finished.contains(key)) {
+                hits.increment();
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // промах не значит отказ: бронирование могло закончиться до старта или прийти в обход сервиса
+        probes.increment();
+        boolean found = bookingStorage.hasFinishedBooking(ownerId, bookerId, itemId, now);
+        if (found) {
+            withWriteLock(() -> addFinished(key));
+        }
+        return found;
+    }
+
+    public void bookingApproved(Long bookerId, Long itemId, LocalDateTime end) {
+        long key = key(bookerId, itemId);
+        if (!properties.isEnabled() || key == 0) {
+            return;
+        }
+        afterCommit(() -> withWriteLock(() -> {
+            if (approved.size() >= properties.getCapacity()) {
+                return;
+            }
+            approved.add(new Approved(end, key));
+            nextEnd = approved.peek().end();
+        }));
+    }
+
+    private void promoteFinished(LocalDateTime now) {
+        LocalDateTime end = nextEnd;
+        if (end == null || !end.isBefore(now)) {
+            return;
+        }
+        withWriteLock(() -> {
+            while (!approved.isEmpty() && approved.peek().end().isBefore(now)) {
+                addFinished(approved.poll().key());
+            }
+            nextEnd = approved.isEmpty() ? null : approved.peek().end();
+        });
+    }
+
+    // вызывается под блокировкой записи
+    private void addFinished(long key) {
+        if (finished.size() >= properties.getCapacity()) {
+            log.info("Индекс права на комментарий заполнен ({} пар), сбрасываем", finished.size());
+            finished.clear();
+        }
+        finished.add(key);
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // оба id упаковываются в один long; пары, которые не помещаются, всегда проверяются в базе
+    private static long key(Long bookerId, Long itemId) {
+        if (bookerId == null || itemId == null || bookerId < 1 || itemId < 1
+                || bookerId > MAX_PACKED_ID || itemId > MAX_PACKED_ID) {
+            return 0;
+        }
+        return bookerId << 32 | itemId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Approved(LocalDateTime end, long key) {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.comment.eligibility;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.comment.eligibility")
+public class CommentEligibilityProperties {
+    private boolean enabled = true;
+    // сколько пар (арендатор, вещь) держим в памяти; при переполнении индекс сбрасывается
+    private int capacity = 1_000_000;
+}
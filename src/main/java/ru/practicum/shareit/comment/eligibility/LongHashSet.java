@@ -0,0 +1,88 @@
+package ru.practicum.shareit.comment.eligibility;
+
+import java.util.Arrays;
+
+// открытая адресация с линейным пробированием; 0 означает пустую ячейку, поэтому ключ 0 не хранится
+class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    private int size;
+
+    LongHashSet(int expectedSize) {
+        table = new long[tableSize(expectedSize)];
+    }
+
+    boolean contains(long key) {
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+        }
+    }
+
+    boolean add(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Ключ 0 зарезервирован под пустую ячейку");
+        }
+        if ((size + 1) * 2L > table.length) {
+            rehash(table.length * 2);
+        }
+        if (insert(table, key)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] resized = new long[capacity];
+        for (long key : table) {
+            if (key != 0) {
+                insert(resized, key);
+            }
+        }
+        table = resized;
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) {
+                return false;
+            }
+            if (current == 0) {
+                table[slot] = key;
+                return true;
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.comment.model.Comment;
@@ -8,7 +9,9 @@ import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId(Long itemId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIdIn(List<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package ru.practicum.shareit.comment.writer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.comment.model.Comment;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(CommentWriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "shareit.comment.write-behind", name = "enabled", havingValue = "true")
+public class CommentWriteBehind implements SmartLifecycle {
+    private static final String INSERT = "insert into comments (id, text, item_id, author_id, created) " +
+            "values (?, ?, ?, ?, ?)";
+    // совпадает с INCREMENT BY у comments_seq и allocationSize у Comment
+    private static final int ID_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CommentWriteBehindProperties properties;
+    private final BlockingQueue<PendingComment> queue;
+    // комментарии, которых ещё нет в таблице: их добавляем к чтению, чтобы автор сразу видел свой комментарий
+    private final ConcurrentMap<Long, Set<PendingComment>> pendingByItem = new ConcurrentHashMap<>();
+    // незаписанные комментарии ждут повтора здесь, клиент уже получил 201
+    private final DelayQueue<Retry> retries = new DelayQueue<>();
+    private final Counter flushed;
+    private final Counter retried;
+    private volatile boolean running;
+    private Thread writer;
+    private long nextId = 1;
+    private long maxId;
+
+    public CommentWriteBehind(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              CommentWriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        Gauge.builder("shareit.comments.write-behind.queue", queue, Collection::size)
+                .register(meterRegistry);
+        Gauge.builder("shareit.comments.write-behind.retrying", retries, Collection::size)
+                .register(meterRegistry);
+        this.flushed = Counter.builder("shareit.comments.write-behind.flushed")
+                .register(meterRegistry);
+        this.retried = Counter.builder("shareit.comments.write-behind.retried")
+                .register(meterRegistry);
+    }
+
+    // вызывается в транзакции запроса после проверки права на комментарий; в очередь попадает после коммита
+    public Comment enqueue(Comment comment) {
+        comment.setId(nextId());
+        PendingComment pending = PendingComment.of(comment);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(pending);
+                }
+            });
+        } else {
+            submit(pending);
+        }
+        return comment;
+    }
+
+    private void submit(PendingComment pending) {
+        pendingByItem.computeIfAbsent(pending.itemId(), id -> ConcurrentHashMap.newKeySet()).add(pending);
+        if (!running) {
+            write(pending, 0);
+            return;
+        }
+        if (!queue.offer(pending)) {
+            // очередь полна: пишем сразу
+            write(pending, 0);
+            return;
+        }
+        // писатель мог остановиться между проверкой и offer; если комментарий ещё в очереди, пишем его сами
+        if (!running && queue.remove(pending)) {
+            write(pending, 0);
+        }
+    }
+
+    public List<Comment> withPending(Long itemId, List<Comment> comments) {
+        Set<PendingComment> pending = pendingByItem.get(itemId);
+        if (pending == null || pending.isEmpty()) {
+            return comments;
+        }
+        Set<Long> storedIds = new HashSet<>();
+        comments.forEach(comment -> storedIds.add(comment.getId()));
+        List<Comment> merged = new ArrayList<>(comments);
+        pending.stream()
+                .filter(comment -> !storedIds.contains(comment.id()))
+                .sorted(Comparator.comparing(PendingComment::id))
+                .forEach(comment -> merged.add(comment.toComment()));
+        return merged;
+    }
+
+    // как pooled-оптимизатор Hibernate: значение V из comments_seq даёт блок (V - ID_BLOCK, V],
+    // поэтому блоки писателя и Hibernate не пересекаются
+    private synchronized Long nextId() {
+        if (nextId > maxId) {
+            Long value = jdbcTemplate.queryForObject("select nextval('comments_seq')", Long.class);
+            maxId = Objects.requireNonNull(value);
+            nextId = Math.max(1, maxId - ID_BLOCK + 1);
+        }
+        return nextId++;
+    }
+
+    private void writeLoop() {
+        List<PendingComment> batch = new ArrayList<>(properties.getBatchSize());
+        long interval = properties.getFlushInterval().toNanos();
+        while (running || !queue.isEmpty()) {
+            retryDue();
+            try {
+                PendingComment first = queue.poll(interval, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + interval;
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void retryDue() {
+        List<Retry> due = new ArrayList<>();
+        retries.drainTo(due);
+        due.forEach(retry -> write(retry.comment(), retry.attempts()));
+    }
+
+    private void flush(List<PendingComment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(),
+                    (statement, comment) -> {
+                        statement.setLong(1, comment.id());
+                        statement.setString(2, comment.text());
+                        statement.setLong(3, comment.itemId());
+                        statement.setLong(4, comment.authorId());
+                        statement.setTimestamp(5, Timestamp.valueOf(comment.created()));
+                    }));
+            flushed.increment(batch.size());
+            batch.forEach(this::removePending);
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} комментариев не записан, записываем по одному: {}", batch.size(), e.getMessage());
+            batch.forEach(comment -> write(comment, 0));
+        }
+    }
+
+    private void write(PendingComment comment, int failedAttempts) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(comment));
+            flushed.increment();
+            removePending(comment);
+        } catch (DuplicateKeyException e) {
+            if (isStored(comment)) {
+                // коммит прошлой попытки дошёл до базы, хотя ответ потерялся
+                removePending(comment);
+            } else {
+                scheduleRetry(comment, failedAttempts, e);
+            }
+        } catch (RuntimeException e) {
+            scheduleRetry(comment, failedAttempts, e);
+        }
+    }
+
+    private void scheduleRetry(PendingComment comment, int failedAttempts, RuntimeException cause) {
+        Duration delay = backoff(failedAttempts);
+        retried.increment();
+        log.warn("Комментарий id = {} к вещи id = {} не записан (попытка {}), повтор через {}: {}",
+                comment.id(), comment.itemId(), failedAttempts + 1, delay, cause.getMessage());
+        retries.add(new Retry(comment, failedAttempts + 1, System.nanoTime() + delay.toNanos()));
+    }
+
+    private boolean isStored(PendingComment comment) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from comments where id = ? and item_id = ? " +
+                "and author_id = ?", Integer.class, comment.id(), comment.itemId(), comment.authorId());
+        return count != null && count > 0;
+    }
+
+    private Duration backoff(int failedAttempts) {
+        Duration delay = properties.getRetryBackoff().multipliedBy(1L << Math.min(failedAttempts, 20));
+        return delay.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : delay;
+    }
+
+    private void insert(PendingComment comment) {
+        jdbcTemplate.update(INSERT, comment.id(), comment.text(), comment.itemId(), comment.authorId(),
+                Timestamp.valueOf(comment.created()));
+    }
+
+    private void removePending(PendingComment comment) {
+        pendingByItem.computeIfPresent(comment.itemId(), (id, pending) -> {
+            pending.remove(comment);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("comment-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        // то, что не успел записать писатель, дописываем в потоке остановки
+        List<PendingComment> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        flush(rest);
+        // последняя попытка для отложенных, не дожидаясь паузы
+        List<Retry> delayed = new ArrayList<>(retries);
+        retries.clear();
+        delayed.forEach(retry -> write(retry.comment(), retry.attempts()));
+        if (retries.isEmpty()) {
+            log.info("Очередь комментариев записана, писатель остановлен");
+        } else {
+            log.error("Писатель остановлен, не записано комментариев: {}", retries.size());
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return writer != null;
+    }
+
+    // останавливаемся после веб-сервера, когда новых комментариев уже не будет
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record Retry(PendingComment comment, int attempts, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Retry) other).dueNanos);
+        }
+    }
+}
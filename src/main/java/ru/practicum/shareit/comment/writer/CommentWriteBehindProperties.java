@@ -0,0 +1,18 @@
+package ru.practicum.shareit.comment.writer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.comment.write-behind")
+public class CommentWriteBehindProperties {
+    private boolean enabled = false;
+    private int capacity = 10_000;
+    private int batchSize = 200;
+    private Duration flushInterval = Duration.ofMillis(5);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+    private Duration retryBackoff = Duration.ofMillis(100);
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.comment.writer;
+
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+record PendingComment(Long id, Long itemId, Long authorId, String authorName, String text, LocalDateTime created) {
+
+    static PendingComment of(Comment comment) {
+        return new PendingComment(comment.getId(), comment.getItem().getId(), comment.getAuthor().getId(),
+                comment.getAuthor().getName(), comment.getText(), comment.getCreated());
+    }
+
+    Comment toComment() {
+        return Comment.builder()
+                .id(id)
+                .text(text)
+                .author(User.builder().id(authorId).name(authorName).build())
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RequiredArgsConstructor
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final RoutingDataSources dataSources;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    @Override
+    public void afterPropertiesSet() {
+        Map<Object, Object> targets = new HashMap<>(dataSources.getReplicas());
+        targets.put(PRIMARY, dataSources.getPrimary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(dataSources.getPrimary());
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.isSticky()) {
+            return PRIMARY;
+        }
+        List<String> healthy = lagMonitor.getHealthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        readYourWritesTracker.bind(parseUserId(request.getHeader(USER_ID_HEADER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.clear();
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(RoutingProperties properties) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getStickyUsersMaximumSize())
+                .expireAfterWrite(properties.getStickiness())
+                .build();
+    }
+
+    public void bind(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public void clear() {
+        CURRENT_USER.remove();
+    }
+
+    public void recordWrite() {
+        Long userId = CURRENT_USER.get();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isSticky() {
+        Long userId = CURRENT_USER.get();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicaLagMonitor implements SmartLifecycle {
+    private final RoutingProperties properties;
+    private final Map<String, JdbcTemplate> replicas = new ConcurrentHashMap<>();
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private volatile List<String> healthyReplicas = List.of();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(RoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            String name = replicaName(i);
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("shareit.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public static String replicaName(int index) {
+        return "replica-" + index;
+    }
+
+    public void register(String name, DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getLagCheckInterval().toSeconds()));
+        replicas.put(name, jdbcTemplate);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public void refresh() {
+        double maxLag = properties.getMaxLag().toMillis() / 1000.0;
+        List<String> healthy = replicas.entrySet().stream()
+                .filter(replica -> {
+                    double lag = probe(replica.getKey(), replica.getValue());
+                    lagSeconds.put(replica.getKey(), lag);
+                    return lag <= maxLag;
+                })
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Доступные для чтения реплики: {}", healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    private double probe(String name, JdbcTemplate jdbcTemplate) {
+        try {
+            Double lag = jdbcTemplate.queryForObject(properties.getLagQuery(), Double.class);
+            return lag == null ? Double.POSITIVE_INFINITY : lag;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось определить отставание реплики {}: {}", name, e.getMessage());
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        long interval = properties.getLagCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-lag-monitor")
+                .daemon()
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties({RoutingProperties.class, DataSourceProperties.class})
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties properties) {
+        return new ReadYourWritesTracker(properties);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(RoutingProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public RoutingDataSources routingDataSources(DataSourceProperties dataSourceProperties,
+                                                 RoutingProperties properties,
+                                                 Environment environment,
+                                                 ReplicaLagMonitor lagMonitor) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<RoutingProperties.Replica> replicaProperties = properties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            RoutingProperties.Replica replica = replicaProperties.get(i);
+            String name = ReplicaLagMonitor.replicaName(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername()
+                    : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword()
+                    : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+            lagMonitor.register(name, dataSource);
+        }
+        return new RoutingDataSources(primary, replicas);
+    }
+
+    @Bean
+    public DataSource dataSource(RoutingDataSources routingDataSources, ReplicaLagMonitor lagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReadWriteRoutingDataSource routing =
+                new ReadWriteRoutingDataSource(routingDataSources, lagMonitor, readYourWritesTracker);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer routingConnectionHandling() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public class RoutingDataSources implements AutoCloseable {
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+
+    public List<HikariDataSource> getPools() {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.values());
+        pools.add(primary);
+        return pools;
+    }
+
+    @Override
+    public void close() {
+        getPools().forEach(HikariDataSource::close);
+    }
+}
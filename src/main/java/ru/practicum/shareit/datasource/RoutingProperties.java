@@ -0,0 +1,28 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class RoutingProperties {
+    private boolean enabled = false;
+    private Duration stickiness = Duration.ofSeconds(2);
+    private Duration maxLag = Duration.ofSeconds(1);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private String lagQuery = "select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)";
+    private long stickyUsersMaximumSize = 100_000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
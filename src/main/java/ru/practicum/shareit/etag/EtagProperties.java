@@ -0,0 +1,13 @@
+package ru.practicum.shareit.etag;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.etag")
+public class EtagProperties {
+    private boolean enabled = true;
+    private Duration timeBucket = Duration.ofMinutes(1);
+}
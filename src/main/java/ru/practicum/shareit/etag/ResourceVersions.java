@@ -0,0 +1,81 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.util.List;
+import java.util.Objects;
+
+@Component
+@EnableConfigurationProperties(EtagProperties.class)
+public class ResourceVersions {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String OWNER_VERSION = "select u.etag_version || '.' || g.version from users u " +
+            "cross join etag_generation g where u.id = ?";
+    private static final String ITEM_VERSION = "select i.etag_version || '.' || g.version from items i " +
+            "cross join etag_generation g where i.id = ?";
+
+    private final EtagProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResourceVersions(EtagProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // у каждого представления владельца свой вид тега: список вещей и бронирования по каждому state
+    public boolean isOwnerItemsNotModified(ServletWebRequest request, Long ownerId) {
+        return isNotModified(request, "oi", OWNER_VERSION, ownerId, ownerId);
+    }
+
+    public boolean isOwnerBookingsNotModified(ServletWebRequest request, Long ownerId, BookingState state) {
+        return isNotModified(request, "ob" + state.name() + "-", OWNER_VERSION, ownerId, ownerId);
+    }
+
+    public boolean isItemViewNotModified(ServletWebRequest request, Long itemId, Long viewerId) {
+        return isNotModified(request, "i" + itemId + "-", ITEM_VERSION, itemId, viewerId);
+    }
+
+    // версии хранятся в строках users/items и меняются в транзакции записи: все экземпляры видят один тег
+    public void itemChanged(Long itemId, Long ownerId) {
+        if (properties.isEnabled()) {
+            jdbcTemplate.update("update items set etag_version = etag_version + 1 where id = ?", itemId);
+            jdbcTemplate.update("update users set etag_version = etag_version + 1 where id = ?", ownerId);
+        }
+    }
+
+    public void usersChanged() {
+        if (properties.isEnabled()) {
+            jdbcTemplate.update("update etag_generation set version = version + 1");
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        itemChanged(event.itemId(), event.ownerId());
+    }
+
+    private boolean isNotModified(ServletWebRequest request, String kind, String versionQuery, Long id,
+                                  Long viewerId) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        List<String> versions = jdbcTemplate.queryForList(versionQuery, String.class, id);
+        if (versions.isEmpty()) {
+            return false;
+        }
+        request.getResponse().addHeader(HttpHeaders.VARY, USER_ID_HEADER);
+        request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        long bucket = System.currentTimeMillis() / Math.max(1, properties.getTimeBucket().toMillis());
+        // JSON и бинарные представления одного ресурса должны иметь разные теги
+        String format = Integer.toString(Objects.hashCode(request.getHeader(HttpHeaders.ACCEPT)), 36);
+        return request.checkNotModified("\"" + kind + versions.getFirst() + "-" + viewerId + "-" + bucket + "-"
+                + format + "\"");
+    }
+}
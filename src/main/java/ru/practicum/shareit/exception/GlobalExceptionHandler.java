@@ -1,16 +1,23 @@
 package ru.practicum.shareit.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.nio.file.AccessDeniedException;
+import java.util.List;
+import java.util.Locale;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    // внешние ключи на users: нарушаются, когда пользователь из кэша UserIdentityCache уже удалён
+    private static final List<String> USER_FOREIGN_KEYS = List.of("FK_ITEM_FOR_OWNER", "FK_BOOKING_FOR_BOOKER",
+            "FK_ITEM_REQUEST_FOR_REQUESTER", "FK_COMMENT_FOR_USER");
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -24,6 +31,23 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("Ошибка поиска", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse emailAlreadyExistsExceptionHandler(final EmailAlreadyExistsException e) {
+        return new ErrorResponse("Ошибка конфликта", e.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> dataIntegrityViolationHandler(final DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toUpperCase(Locale.ROOT);
+        if (USER_FOREIGN_KEYS.stream().anyMatch(cause::contains)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Ошибка поиска", "Пользователь не найден"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Ошибка", e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse generalExceptionHandler(final RuntimeException e) {
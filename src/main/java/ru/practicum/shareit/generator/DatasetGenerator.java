@@ -0,0 +1,160 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static ru.practicum.shareit.generator.MultiRowInserter.columns;
+
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+    public static final String[] WORDS = {"drill", "ladder", "tent", "bike", "camera", "saw", "kayak", "projector",
+            "grill", "guitar", "stroller", "scooter", "hammer", "telescope", "boat", "speaker"};
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String[] ADJECTIVES = {"old", "new", "compact", "heavy", "electric", "folding", "pro",
+            "vintage"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorProperties properties;
+
+    public void generate() {
+        long started = System.nanoTime();
+        LocalDateTime anchor = properties.getAnchor() != null ? properties.getAnchor() :
+                LocalDate.now().atStartOfDay();
+        long userOffset = idOffset("users");
+        long itemOffset = idOffset("items");
+
+        generateUsers(userOffset);
+        long[] itemOwners = generateItems(userOffset, itemOffset);
+        generateBookingsAndComments(userOffset, itemOffset, itemOwners, anchor);
+        log.info("Добавлено строк в booking_view: {}", jdbcTemplate.update(BookingViewRepository.INSERT_MISSING));
+        generateRequests(userOffset, anchor);
+        for (String table : new String[]{"users", "items", "bookings", "comments", "item_request"}) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (maxId(table) + ID_ALLOCATION_SIZE));
+        }
+        log.info("Генерация данных завершена за {} с", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void generateUsers(long userOffset) {
+        try (MultiRowInserter users = inserter("users", "id", "name", "email")) {
+            for (long i = 1; i <= properties.getUsers(); i++) {
+                long id = userOffset + i;
+                users.add(id, "user" + id, "user" + id + "@shareit.ru");
+            }
+        }
+        log.info("Сгенерировано пользователей: {}", properties.getUsers());
+    }
+
+    private long[] generateItems(long userOffset, long itemOffset) {
+        SplittableRandom random = new SplittableRandom(properties.getSeed() ^ 0x17E45L);
+        int owners = Math.max(1, (int) (properties.getUsers() * properties.getOwnerShare()));
+        int hugeOwners = Math.min(properties.getHugeOwners(), owners);
+        int hugeOwnerItems = hugeOwners == 0 ? 0 : (int) (properties.getItems() * properties.getHugeOwnerItemShare());
+        long[] itemOwners = new long[properties.getItems()];
+
+        try (MultiRowInserter items = inserter("items", "id", "name", "description", "is_available", "owner_id")) {
+            for (int i = 0; i < properties.getItems(); i++) {
+                int ownerIndex = i < hugeOwnerItems ? i % hugeOwners :
+                        hugeOwners + random.nextInt(Math.max(1, owners - hugeOwners));
+                itemOwners[i] = userOffset + 1 + Math.min(ownerIndex, properties.getUsers() - 1);
+                String word = WORDS[random.nextInt(WORDS.length)];
+                String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+                items.add(itemOffset + i + 1, adjective + " " + word, "Good " + adjective + " " + word + " for rent",
+                        random.nextInt(10) > 0, itemOwners[i]);
+            }
+        }
+        log.info("Сгенерировано предметов: {}, крупных владельцев: {}", properties.getItems(), hugeOwners);
+        return itemOwners;
+    }
+
+    private void generateBookingsAndComments(long userOffset, long itemOffset, long[] itemOwners,
+                                             LocalDateTime anchor) {
+        if (itemOwners.length == 0 || properties.getUsers() < 2) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(properties.getSeed() ^ 0xB00C1L);
+        ZipfSampler itemSampler = new ZipfSampler(itemOwners.length, properties.getItemZipfExponent());
+        ZipfSampler bookerSampler = new ZipfSampler(properties.getUsers(), properties.getBookerZipfExponent());
+        long bookingOffset = idOffset("bookings");
+        long commentOffset = idOffset("comments");
+        long commentId = commentOffset;
+        LocalDateTime historyStart = anchor.minusDays(properties.getHistoryDays());
+        long spanHours = (long) (properties.getHistoryDays() + properties.getFutureDays()) * 24;
+
+        try (MultiRowInserter bookings = inserter("bookings", "id", "start_date", "end_date", "item_id",
+                "booker_id", "status");
+             MultiRowInserter comments = inserter("comments", "id", "text", "item_id", "author_id", "created")) {
+            for (long i = 1; i <= properties.getBookings(); i++) {
+                int itemIndex = itemSampler.sample(random);
+                long itemId = itemOffset + itemIndex + 1;
+                long bookerId = userOffset + 1 + bookerSampler.sample(random);
+                if (bookerId == itemOwners[itemIndex]) {
+                    bookerId = userOffset + 1 + (bookerId - userOffset) % properties.getUsers();
+                }
+                LocalDateTime start = historyStart.plusHours(random.nextLong(spanHours));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(14 * 24));
+                String status = status(start, end, anchor, random);
+                bookings.add(bookingOffset + i, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                        status);
+
+                if ("APPROVED".equals(status) && end.isBefore(anchor)
+                        && random.nextDouble() < properties.getCommentRate()) {
+                    comments.add(++commentId, "Отличная вещь, спасибо! #" + commentId, itemId, bookerId,
+                            Timestamp.valueOf(end.plusHours(random.nextInt(72))));
+                }
+                if (i % 1_000_000 == 0) {
+                    log.info("Сгенерировано бронирований: {}", i);
+                }
+            }
+        }
+        log.info("Сгенерировано бронирований: {}, комментариев: {}", properties.getBookings(),
+                commentId - commentOffset);
+    }
+
+    private void generateRequests(long userOffset, LocalDateTime anchor) {
+        SplittableRandom random = new SplittableRandom(properties.getSeed() ^ 0x4E0E57L);
+        long requestOffset = idOffset("item_request");
+        try (MultiRowInserter requests = inserter("item_request", "id", "description", "requester_id", "created")) {
+            for (long i = 1; i <= properties.getRequests(); i++) {
+                requests.add(requestOffset + i, "Нужен " + WORDS[random.nextInt(WORDS.length)],
+                        userOffset + 1 + random.nextInt(properties.getUsers()),
+                        Timestamp.valueOf(anchor.minusMinutes(random.nextLong(properties.getHistoryDays() * 1440L))));
+            }
+        }
+        log.info("Сгенерировано запросов: {}", properties.getRequests());
+    }
+
+    private static String status(LocalDateTime start, LocalDateTime end, LocalDateTime anchor,
+                                 SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(anchor)) {
+            return roll < 80 ? "APPROVED" : roll < 95 ? "REJECTED" : "CANCELLED";
+        }
+        if (start.isAfter(anchor)) {
+            return roll < 50 ? "WAITING" : roll < 90 ? "APPROVED" : "REJECTED";
+        }
+        return roll < 90 ? "APPROVED" : "WAITING";
+    }
+
+    private MultiRowInserter inserter(String table, String... columnNames) {
+        return new MultiRowInserter(jdbcTemplate, table, columns(columnNames), properties.getRowsPerStatement(),
+                properties.getStatementsPerBatch());
+    }
+
+    private long idOffset(String table) {
+        Long reserved = jdbcTemplate.queryForObject("SELECT nextval('" + table + "_seq')", Long.class);
+        return Math.max(maxId(table), reserved == null ? 0 : reserved);
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("generate")
+@RequiredArgsConstructor
+@EnableConfigurationProperties(GeneratorProperties.class)
+public class DatasetGeneratorRunner implements ApplicationRunner {
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        new DatasetGenerator(jdbcTemplate, properties).generate();
+        if (properties.isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDateTime;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.generator")
+public class GeneratorProperties {
+    private long seed = 42;
+    private LocalDateTime anchor;
+    private int users = 10_000;
+    private double ownerShare = 0.2;
+    private int items = 50_000;
+    private int hugeOwners = 5;
+    private double hugeOwnerItemShare = 0.3;
+    private long bookings = 1_000_000;
+    private double itemZipfExponent = 1.1;
+    private double bookerZipfExponent = 0.8;
+    private int historyDays = 3 * 365;
+    private int futureDays = 60;
+    private double commentRate = 0.1;
+    private int requests = 5_000;
+    private int rowsPerStatement = 100;
+    private int statementsPerBatch = 50;
+    private boolean exitOnCompletion = true;
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.generator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class MultiRowInserter implements AutoCloseable {
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertPrefix;
+    private final String rowPlaceholders;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final int statementsPerBatch;
+    private final String fullStatement;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    MultiRowInserter(JdbcTemplate jdbcTemplate, String table, List<String> columns, int rowsPerStatement,
+                     int statementsPerBatch) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertPrefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholders = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        this.columns = columns.size();
+        this.rowsPerStatement = rowsPerStatement;
+        this.statementsPerBatch = statementsPerBatch;
+        this.fullStatement = statement(rowsPerStatement);
+    }
+
+    void add(Object... row) {
+        rows.add(row);
+        if (rows.size() == rowsPerStatement * statementsPerBatch) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void flush() {
+        int full = rows.size() / rowsPerStatement * rowsPerStatement;
+        List<Object[]> batch = new ArrayList<>();
+        for (int from = 0; from < full; from += rowsPerStatement) {
+            batch.add(flatten(rows.subList(from, from + rowsPerStatement)));
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(fullStatement, batch);
+        }
+        if (full < rows.size()) {
+            List<Object[]> rest = rows.subList(full, rows.size());
+            jdbcTemplate.update(statement(rest.size()), flatten(rest));
+        }
+        rows.clear();
+    }
+
+    private Object[] flatten(List<Object[]> statementRows) {
+        Object[] params = new Object[statementRows.size() * columns];
+        for (int i = 0; i < statementRows.size(); i++) {
+            System.arraycopy(statementRows.get(i), 0, params, i * columns, columns);
+        }
+        return params;
+    }
+
+    private String statement(int rowCount) {
+        return insertPrefix + String.join(", ", Collections.nCopies(rowCount, rowPlaceholders));
+    }
+
+    static List<String> columns(String... names) {
+        return Arrays.asList(names);
+    }
+}
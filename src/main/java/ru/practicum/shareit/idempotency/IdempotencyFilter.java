@@ -0,0 +1,298 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.*;
+
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentMap<IdempotencyStore.Key, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<String[]> endpoints;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.endpoints = properties.getEndpoints().stream()
+                .map(endpoint -> endpoint.trim().split("\\s+", 2))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        for (String[] endpoint : endpoints) {
+            if (endpoint[0].equalsIgnoreCase(request.getMethod())
+                    && pathMatcher.match(endpoint[1], request.getRequestURI())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(USER_ID_HEADER));
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String value = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (value.isEmpty() || value.length() > properties.getMaxKeyLength()) {
+            reject(response, HttpStatus.BAD_REQUEST, "Ошибка валидации",
+                    "Заголовок " + IDEMPOTENCY_KEY_HEADER + " должен содержать от 1 до "
+                            + properties.getMaxKeyLength() + " символов");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(request.getMethod(), request.getRequestURI(), cachedRequest.body);
+        IdempotencyStore.Key key = new IdempotencyStore.Key(userId, value);
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        while (true) {
+            IdempotencyStore.StoredResponse stored = store.find(key);
+            if (stored != null && !stored.fingerprint().equals(fingerprint)) {
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "Ошибка идемпотентности",
+                        "Ключ " + value + " уже использован для другого запроса");
+                return;
+            }
+            if (stored != null && stored.isCompleted()) {
+                replay(response, stored);
+                return;
+            }
+
+            CompletableFuture<Void> execution = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                try {
+                    if (store.claim(key, fingerprint)) {
+                        execute(cachedRequest, response, chain, key, fingerprint);
+                        return;
+                    }
+                } finally {
+                    inFlight.remove(key, execution);
+                    execution.complete(null);
+                }
+            }
+
+            long remaining = deadline - System.nanoTime();
+            long wait = running != null ? remaining : Math.min(remaining, properties.getPollInterval().toNanos());
+            if (remaining <= 0 || !await(running, wait)) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                reject(response, HttpStatus.CONFLICT, "Ошибка идемпотентности",
+                        "Запрос с ключом " + value + " ещё выполняется");
+                return;
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         IdempotencyStore.Key key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean succeeded = false;
+        try {
+            chain.doFilter(request, wrapper);
+            succeeded = HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful();
+        } finally {
+            if (succeeded) {
+                saveResponse(key, fingerprint, wrapper);
+            } else {
+                releaseQuietly(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void saveResponse(IdempotencyStore.Key key, String fingerprint, ContentCachingResponseWrapper wrapper) {
+        boolean saved = false;
+        try {
+            store.complete(key, new IdempotencyStore.StoredResponse(fingerprint, wrapper.getStatus(),
+                    wrapper.getContentType(), encodeBody(wrapper.getContentType(), wrapper.getContentAsByteArray())));
+            saved = true;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить ответ для ключа идемпотентности {} пользователя id = {}: {}",
+                    key.value(), key.userId(), e.getMessage());
+        } finally {
+            if (!saved) {
+                // незавершённая заявка держала бы повторы в 409 до pending-timeout
+                releaseQuietly(key);
+            }
+        }
+    }
+
+    private void releaseQuietly(IdempotencyStore.Key key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось снять заявку по ключу идемпотентности {} пользователя id = {}: {}",
+                    key.value(), key.userId(), e.getMessage());
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(decodeBody(stored.contentType(), stored.body()));
+    }
+
+    // колонка response текстовая, поэтому тела CBOR/Smile храним в Base64
+    private static String encodeBody(String contentType, byte[] body) {
+        return isText(contentType)
+                ? new String(body, StandardCharsets.UTF_8)
+                : Base64.getEncoder().encodeToString(body);
+    }
+
+    private static byte[] decodeBody(String contentType, String body) {
+        return isText(contentType) ? body.getBytes(StandardCharsets.UTF_8) : Base64.getDecoder().decode(body);
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return "text".equals(mediaType.getType()) || mediaType.getSubtype().endsWith("json");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String error, String description)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(error, description));
+    }
+
+    private static boolean await(CompletableFuture<Void> running, long timeoutNanos) {
+        try {
+            if (running != null) {
+                running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } else {
+                TimeUnit.NANOSECONDS.sleep(timeoutNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static String fingerprint(String method, String uri, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + ' ' + uri + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // тело уже в памяти: слушатель сразу получает все данные
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
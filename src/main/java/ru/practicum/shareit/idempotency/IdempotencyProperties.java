@@ -0,0 +1,25 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    private List<String> endpoints = new ArrayList<>(List.of(
+            "POST /bookings",
+            "POST /items",
+            "POST /items/*/comment"));
+    private int maxKeyLength = 255;
+    private Duration ttl = Duration.ofHours(24);
+    private long maximumSize = 10_000;
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    private Duration pollInterval = Duration.ofMillis(100);
+    private Duration pendingTimeout = Duration.ofMinutes(1);
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class IdempotencyStore implements SmartLifecycle {
+    private static final RowMapper<StoredResponse> ROW_MAPPER = (rs, rowNum) -> new StoredResponse(
+            rs.getString("fingerprint"),
+            rs.getObject("status", Integer.class),
+            rs.getString("content_type"),
+            rs.getString("response"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+    private final Cache<Key, StoredResponse> completed;
+    private ScheduledExecutorService scheduler;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public StoredResponse find(Key key) {
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<StoredResponse> rows = jdbcTemplate.query("select fingerprint, status, content_type, response " +
+                        "from idempotency_keys where user_id = ? and idempotency_key = ? and created > ?",
+                ROW_MAPPER, key.userId(), key.value(), LocalDateTime.now().minus(properties.getTtl()));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        StoredResponse stored = rows.getFirst();
+        if (stored.isCompleted()) {
+            completed.put(key, stored);
+        }
+        return stored;
+    }
+
+    public boolean claim(Key key, String fingerprint) {
+        if (insertClaim(key, fingerprint)) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int removed = jdbcTemplate.update("delete from idempotency_keys where user_id = ? and idempotency_key = ? " +
+                        "and (created < ? or (status is null and created < ?))",
+                key.userId(), key.value(), now.minus(properties.getTtl()), now.minus(properties.getPendingTimeout()));
+        return removed > 0 && insertClaim(key, fingerprint);
+    }
+
+    // ответ сначала фиксируется в памяти: даже если запись в таблицу не удалась, этот экземпляр повторит ответ
+    public void complete(Key key, StoredResponse response) {
+        completed.put(key, response);
+        jdbcTemplate.update("update idempotency_keys set status = ?, content_type = ?, response = ? " +
+                        "where user_id = ? and idempotency_key = ?",
+                response.status(), response.contentType(), response.body(), key.userId(), key.value());
+    }
+
+    public void release(Key key) {
+        jdbcTemplate.update("delete from idempotency_keys where user_id = ? and idempotency_key = ? and status is null",
+                key.userId(), key.value());
+    }
+
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = jdbcTemplate.update("delete from idempotency_keys where created < ? " +
+                        "or (status is null and created < ?)",
+                now.minus(properties.getTtl()), now.minus(properties.getPendingTimeout()));
+        if (removed > 0) {
+            log.debug("Удалено устаревших ключей идемпотентности: {}", removed);
+        }
+    }
+
+    private boolean insertClaim(Key key, String fingerprint) {
+        try {
+            jdbcTemplate.update("insert into idempotency_keys (user_id, idempotency_key, fingerprint, created) " +
+                    "values (?, ?, ?, ?)", key.userId(), key.value(), fingerprint, LocalDateTime.now());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purgeExpired();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить устаревшие ключи идемпотентности: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        long interval = properties.getPurgeInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("idempotency-purge")
+                .daemon()
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public record Key(long userId, String value) {
+    }
+
+    public record StoredResponse(String fingerprint, Integer status, String contentType, String body) {
+        public boolean isCompleted() {
+            return status != null;
+        }
+    }
+}
@@ -4,13 +4,17 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -20,17 +24,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public List<ItemBookingDto> getUsersItems(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+    public List<ItemBookingDto> getUsersItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                              ServletWebRequest request) {
         log.info("Получить все предметы пользователя id = {} с датами бронирований", ownerId);
+        if (resourceVersions.isOwnerItemsNotModified(request, ownerId)) {
+            return null;
+        }
         return itemService.getUsersItemsWithBookings(ownerId);
     }
 
+    @GetMapping(params = "ids")
+    public ItemBatchDto getItemsByIds(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @RequestParam List<Long> ids) {
+        log.info("Получить предметы по списку id = {} для пользователя id = {}", ids, userId);
+        return itemService.getItemsWithBookingsAndComments(ids, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ItemBookingDto getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                      @Positive @PathVariable(value = "itemId") Long itemId) {
+                                      @Positive @PathVariable(value = "itemId") Long itemId,
+                                      ServletWebRequest request) {
         log.info("Получить предмет по id = {} для пользователя id = {}", itemId, userId);
+        if (resourceVersions.isItemViewNotModified(request, itemId, userId)) {
+            return null;
+        }
         return itemService.getItemWithBookingsAndComments(itemId, userId);
     }
 
@@ -40,6 +60,16 @@ public class ItemController {
         return itemService.getAvailableItemsDtoByText(searchText);
     }
 
+    @GetMapping("/stats")
+    public ItemStatsDto getItemStats(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                     @RequestParam(defaultValue = "week") String bucket) {
+        log.info("Получить статистику загрузки предметов пользователя id = {} с {} по {}, интервал {}",
+                ownerId, from, to, bucket);
+        return itemService.getItemStats(ownerId, from, to, StatsBucket.from(bucket));
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemResponseDto addNewItem(@RequestHeader("X-Sharer-User-Id") Long ownerId,
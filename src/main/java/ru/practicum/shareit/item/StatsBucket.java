@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum StatsBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public static StatsBucket from(String value) {
+        for (StatsBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new ValidationException("Неизвестный интервал статистики: " + value);
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ItemBatchDto {
+    private List<ItemBookingDto> items;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.StatsBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ItemStatsDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private StatsBucket bucket;
+    private List<ItemUsageDto> items;
+}
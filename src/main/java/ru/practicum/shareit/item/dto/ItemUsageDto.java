@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ItemUsageDto {
+    private Long itemId;
+    private String name;
+    private int approvedBookings;
+    private int rejectedBookings;
+    private Double approvalRatio;
+    private double bookedHours;
+    private List<UsageBucketDto> buckets;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.event;
+
+public record ItemChangedEvent(Type type, Long itemId, Long ownerId, String name, String description,
+                               boolean available) {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.cache.CacheRegions;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -10,6 +15,9 @@ import java.util.List;
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ITEMS_BY_OWNER)})
     List<Item> findByOwnerIdOrderByIdAsc(Long ownerId);
 
     @Query("select i from Item i " +
@@ -17,4 +25,18 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             " or upper(i.description) like upper(concat('%', ?1, '%'))) " +
             " and i.available = true")
     List<Item> searchAvailableItems(String text);
+
+    @Query("select i.id as id, i.owner.id as ownerId, i.name as name, i.description as description " +
+            "from Item i where i.available = true order by i.id desc")
+    List<ItemIndexView> findRecentAvailableForIndex(Limit limit);
+
+    interface ItemIndexView {
+        Long getId();
+
+        Long getOwnerId();
+
+        String getName();
+
+        String getDescription();
+    }
 }
\ No newline at end of file
@@ -3,10 +3,14 @@ package ru.practicum.shareit.item.service;
 import jakarta.validation.constraints.Positive;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.StatsBucket;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -16,6 +20,10 @@ public interface ItemService {
 
     ItemBookingDto getItemWithBookingsAndComments(Long itemId, Long userId);
 
+    ItemBatchDto getItemsWithBookingsAndComments(List<Long> itemIds, Long userId);
+
+    ItemStatsDto getItemStats(Long ownerId, LocalDateTime from, LocalDateTime to, StatsBucket bucket);
+
     Collection<ItemResponseDto> getAvailableItemsDtoByText(@Positive String searchText);
 
     ItemResponseDto addItem(Long ownerId, ItemRequestDto itemRequestDto);
@@ -1,45 +1,58 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.comment.eligibility.CommentEligibilityIndex;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.comment.writer.CommentWriteBehind;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
-import ru.practicum.shareit.item.dto.ItemBookingDto;
-import ru.practicum.shareit.item.dto.ItemRequestDto;
-import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.StatsBucket;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    public static final int MAX_BATCH_SIZE = 100;
+    public static final int MAX_STATS_BUCKETS = 400;
+    private static final Set<BookingStatus> STATS_STATUSES = EnumSet.of(BookingStatus.APPROVED, BookingStatus.REJECTED);
+    private static final double SECONDS_PER_HOUR = 3600.0;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final BookingStorage bookingStorage;
     private final CommentRepository commentRepository;
+    private final ObjectProvider<CommentWriteBehind> commentWriteBehind;
+    private final CommentEligibilityIndex commentEligibilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersions resourceVersions;
 
     @Override
     public List<ItemBookingDto> getUsersItemsWithBookings(Long ownerId) {
-        checkUserExists(ownerId);
+        userIdentityCache.checkUserExists(ownerId);
         List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(ownerId);
 
         if (items.isEmpty()) {
@@ -56,14 +69,15 @@ public class ItemServiceImpl implements ItemService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        Map<Long, BookingDto> lastBookingsMap = getLastBookingsForItems(itemIds, now);
-        Map<Long, BookingDto> nextBookingsMap = getNextBookingsForItems(itemIds, now);
+        Map<Long, BookingDto> lastBookingsMap = getLastBookingsForItems(ownerId, itemIds, now);
+        Map<Long, BookingDto> nextBookingsMap = getNextBookingsForItems(ownerId, itemIds, now);
 
         return items.stream()
                 .map(item -> {
                     BookingDto lastBooking = lastBookingsMap.get(item.getId());
                     BookingDto nextBooking = nextBookingsMap.get(item.getId());
-                    List<Comment> comments = commentsByItemId.getOrDefault(item.getId(), Collections.emptyList());
+                    List<Comment> comments = withPendingComments(item.getId(),
+                            commentsByItemId.getOrDefault(item.getId(), Collections.emptyList()));
 
                     return ItemMapper.toItemBookingDto(item, lastBooking, nextBooking, comments);
                 })
@@ -73,20 +87,119 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemBookingDto getItemWithBookingsAndComments(Long itemId, Long userId) {
         Item item = getItemById(itemId);
-        List<Comment> comments = commentRepository.findByItemId(itemId);
+        List<Comment> comments = withPendingComments(itemId, commentRepository.findByItemId(itemId));
 
         BookingDto lastBooking = null;
         BookingDto nextBooking = null;
         LocalDateTime now = LocalDateTime.now();
 
         if (item.getOwner().getId().equals(userId)) {
-            lastBooking = getLastBooking(itemId, now);
-            nextBooking = getNextBooking(itemId, now);
+            lastBooking = bookingStorage.getLastBooking(userId, itemId, now).orElse(null);
+            nextBooking = bookingStorage.getNextBooking(userId, itemId, now).orElse(null);
         }
 
         return ItemMapper.toItemBookingDto(item, lastBooking, nextBooking, comments);
     }
 
+    @Override
+    public ItemBatchDto getItemsWithBookingsAndComments(List<Long> itemIds, Long userId) {
+        Set<Long> ids = new LinkedHashSet<>(itemIds);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество id в запросе должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        // пустой элемент списка (ids=1,,2) приходит как null
+        if (ids.stream().anyMatch(id -> id == null || id < 1)) {
+            throw new ValidationException("Список id должен содержать только положительные числа");
+        }
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Long> foundIds = ids.stream()
+                .filter(itemsById::containsKey)
+                .toList();
+        List<Long> ownedIds = foundIds.stream()
+                .filter(id -> itemsById.get(id).getOwner().getId().equals(userId))
+                .toList();
+
+        Map<Long, List<Comment>> commentsByItemId = foundIds.isEmpty() ? Collections.emptyMap() :
+                commentRepository.findByItemIdIn(foundIds)
+                        .stream()
+                        .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, BookingDto> lastBookingsMap = getLastBookingsForItems(userId, ownedIds, now);
+        Map<Long, BookingDto> nextBookingsMap = getNextBookingsForItems(userId, ownedIds, now);
+
+        List<ItemBookingDto> items = foundIds.stream()
+                .map(id -> ItemMapper.toItemBookingDto(itemsById.get(id),
+                        lastBookingsMap.get(id),
+                        nextBookingsMap.get(id),
+                        withPendingComments(id, commentsByItemId.getOrDefault(id, Collections.emptyList()))))
+                .toList();
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !itemsById.containsKey(id))
+                .toList();
+
+        return ItemBatchDto.builder()
+                .items(items)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    public ItemStatsDto getItemStats(Long ownerId, LocalDateTime from, LocalDateTime to, StatsBucket bucket) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания");
+        }
+        List<LocalDateTime> bounds = getBucketBounds(from, to, bucket);
+        userIdentityCache.checkUserExists(ownerId);
+        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(ownerId);
+
+        ItemStatsAggregator aggregator = new ItemStatsAggregator(
+                items.stream().mapToLong(Item::getId).toArray(),
+                bounds.stream().mapToLong(ItemServiceImpl::toEpochSecond).toArray());
+        if (!items.isEmpty()) {
+            bookingStorage.forEachSpan(ownerId, STATS_STATUSES, from, to, (itemId, start, end, status) ->
+                    aggregator.add(itemId, toEpochSecond(start), toEpochSecond(end), status));
+        }
+
+        List<ItemUsageDto> usage = new ArrayList<>(items.size());
+        for (int i = 0; i < aggregator.getItemCount(); i++) {
+            List<UsageBucketDto> buckets = new ArrayList<>(aggregator.getBucketCount());
+            long bookedSeconds = 0;
+            for (int b = 0; b < aggregator.getBucketCount(); b++) {
+                long seconds = aggregator.getBookedSeconds(i, b);
+                long length = toEpochSecond(bounds.get(b + 1)) - toEpochSecond(bounds.get(b));
+                bookedSeconds += seconds;
+                buckets.add(UsageBucketDto.builder()
+                        .start(bounds.get(b))
+                        .end(bounds.get(b + 1))
+                        .bookedHours(seconds / SECONDS_PER_HOUR)
+                        .occupancy((double) seconds / length)
+                        .build());
+            }
+            int approved = aggregator.getApproved(i);
+            int decided = approved + aggregator.getRejected(i);
+            usage.add(ItemUsageDto.builder()
+                    .itemId(items.get(i).getId())
+                    .name(items.get(i).getName())
+                    .approvedBookings(approved)
+                    .rejectedBookings(aggregator.getRejected(i))
+                    .approvalRatio(decided == 0 ? null : (double) approved / decided)
+                    .bookedHours(bookedSeconds / SECONDS_PER_HOUR)
+                    .buckets(buckets)
+                    .build());
+        }
+        return ItemStatsDto.builder()
+                .from(from)
+                .to(to)
+                .bucket(bucket)
+                .items(usage)
+                .build();
+    }
+
     @Override
     public Collection<ItemResponseDto> getAvailableItemsDtoByText(String searchText) {
         if (searchText == null || searchText.isBlank()) {
@@ -101,16 +214,18 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemResponseDto addItem(Long ownerId, ItemRequestDto itemRequestDto) {
-        User owner = getUserById(ownerId);
+        User owner = userIdentityCache.getUserReference(ownerId);
         Item item = ItemMapper.toItem(itemRequestDto);
         item.setOwner(owner);
-        return ItemMapper.toItemResponseDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        publishItemChanged(ItemChangedEvent.Type.ADDED, savedItem);
+        return ItemMapper.toItemResponseDto(savedItem);
     }
 
     @Override
     @Transactional
     public ItemResponseDto updateItem(Long ownerId, Long itemId, ItemRequestDto itemRequestDto) {
-        checkUserExists(ownerId);
+        userIdentityCache.checkUserExists(ownerId);
         Item itemToUpdate = getItemById(itemId);
 
         if (!itemToUpdate.getOwner().getId().equals(ownerId)) {
@@ -126,6 +241,9 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(itemRequestDto.getAvailable())) {
             itemToUpdate.setAvailable(itemRequestDto.getAvailable());
         }
+        bookingStorage.updateItem(ownerId, itemId, itemToUpdate.getName(), itemToUpdate.getDescription(),
+                itemToUpdate.getAvailable());
+        publishItemChanged(ItemChangedEvent.Type.UPDATED, itemToUpdate);
 
         return ItemMapper.toItemResponseDto(itemToUpdate);
     }
@@ -133,7 +251,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemResponseDto deleteItemById(Long ownerId, Long itemId) {
-        checkUserExists(ownerId);
+        userIdentityCache.checkUserExists(ownerId);
         Item item = getItemById(itemId);
 
         if (!item.getOwner().getId().equals(ownerId)) {
@@ -141,88 +259,77 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.deleteById(itemId);
+        publishItemChanged(ItemChangedEvent.Type.DELETED, item);
         return ItemMapper.toItemResponseDto(item);
     }
 
     @Override
     @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
-        User author = getUserById(userId);
+        User author = userIdentityCache.getUserReference(userId);
         Item item = getItemById(itemId);
 
         LocalDateTime now = LocalDateTime.now();
-        boolean hasBooked = bookingRepository.existsByBookerIdAndItemIdAndStatusApprovedAndEndBefore(
-                userId, itemId, now);
+        boolean hasBooked = commentEligibilityIndex.hasFinishedBooking(item.getOwner().getId(), userId, itemId, now);
 
         if (!hasBooked) {
             throw new ValidationException("Пользователь может оставить комментарий только после завершения аренды вещи");
         }
 
         Comment comment = CommentMapper.toComment(commentRequestDto, item, author);
+        resourceVersions.itemChanged(itemId, item.getOwner().getId());
+        CommentWriteBehind writeBehind = commentWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            return CommentMapper.toCommentResponseDto(writeBehind.enqueue(comment));
+        }
         return CommentMapper.toCommentResponseDto(commentRepository.save(comment));
     }
 
-    private Map<Long, BookingDto> getLastBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+    private List<Comment> withPendingComments(Long itemId, List<Comment> comments) {
+        CommentWriteBehind writeBehind = commentWriteBehind.getIfAvailable();
+        return writeBehind == null ? comments : writeBehind.withPending(itemId, comments);
+    }
+
+    private Map<Long, BookingDto> getLastBookingsForItems(Long ownerId, List<Long> itemIds, LocalDateTime now) {
         if (itemIds.isEmpty()) {
             return Collections.emptyMap();
         }
-
-        List<Booking> lastBookings = bookingRepository.findLastBookingsForItems(itemIds, now);
-
-        return lastBookings.stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        BookingMapper::toBookingDto
-                ));
+        return bookingStorage.getLastBookings(ownerId, itemIds, now);
     }
 
-    private Map<Long, BookingDto> getNextBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+    private Map<Long, BookingDto> getNextBookingsForItems(Long ownerId, List<Long> itemIds, LocalDateTime now) {
         if (itemIds.isEmpty()) {
             return Collections.emptyMap();
         }
-
-        List<Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds, now);
-
-        return nextBookings.stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        BookingMapper::toBookingDto
-                ));
+        return bookingStorage.getNextBookings(ownerId, itemIds, now);
     }
 
-    private BookingDto getLastBooking(Long itemId, LocalDateTime now) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "end");
-        List<Booking> lastBookings = bookingRepository.findLastBookingByItemId(itemId, now, sort);
-
-        if (!lastBookings.isEmpty()) {
-            return BookingMapper.toBookingDto(lastBookings.get(0));
+    private List<LocalDateTime> getBucketBounds(LocalDateTime from, LocalDateTime to, StatsBucket bucket) {
+        List<LocalDateTime> bounds = new ArrayList<>();
+        bounds.add(from);
+        for (LocalDateTime boundary = bucket.next(bucket.floor(from)); boundary.isBefore(to);
+             boundary = bucket.next(boundary)) {
+            if (bounds.size() >= MAX_STATS_BUCKETS) {
+                throw new ValidationException("Период статистики не может содержать больше " + MAX_STATS_BUCKETS
+                        + " интервалов");
+            }
+            bounds.add(boundary);
         }
-        return null;
+        bounds.add(to);
+        return bounds;
     }
 
-    private BookingDto getNextBooking(Long itemId, LocalDateTime now) {
-        Sort sort = Sort.by(Sort.Direction.ASC, "start");
-        List<Booking> nextBookings = bookingRepository.findNextBookingByItemId(itemId, now, sort);
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
 
-        if (!nextBookings.isEmpty()) {
-            return BookingMapper.toBookingDto(nextBookings.get(0));
-        }
-        return null;
+    private void publishItemChanged(ItemChangedEvent.Type type, Item item) {
+        eventPublisher.publishEvent(new ItemChangedEvent(type, item.getId(), item.getOwner().getId(),
+                item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable())));
     }
 
     private Item getItemById(Long id) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Предмет с id " + id + " не найден"));
     }
-
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь с id " + userId + " не найден"));
-    }
-
-    private void checkUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("Пользователь с id " + userId + " не найден");
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Arrays;
+
+class ItemStatsAggregator {
+    private final long[] itemIds;
+    private final long[] bounds;
+    private final int buckets;
+    private final long[] bookedSeconds;
+    private final int[] approved;
+    private final int[] rejected;
+    private int cursor;
+
+    ItemStatsAggregator(long[] sortedItemIds, long[] bucketBounds) {
+        this.itemIds = sortedItemIds;
+        this.bounds = bucketBounds;
+        this.buckets = bucketBounds.length - 1;
+        this.bookedSeconds = new long[sortedItemIds.length * buckets];
+        this.approved = new int[sortedItemIds.length];
+        this.rejected = new int[sortedItemIds.length];
+    }
+
+    void add(long itemId, long start, long end, BookingStatus status) {
+        int item = Arrays.binarySearch(itemIds, itemId);
+        if (item < 0) {
+            return;
+        }
+        long from = bounds[0];
+        long to = bounds[buckets];
+        if (start >= from && start < to) {
+            if (status == BookingStatus.APPROVED) {
+                approved[item]++;
+            } else if (status == BookingStatus.REJECTED) {
+                rejected[item]++;
+            }
+        }
+        if (status != BookingStatus.APPROVED) {
+            return;
+        }
+        long segmentStart = Math.max(start, from);
+        long intervalEnd = Math.min(end, to);
+        if (segmentStart >= intervalEnd) {
+            return;
+        }
+        int offset = item * buckets;
+        int bucket = bucketOf(segmentStart);
+        while (segmentStart < intervalEnd) {
+            long segmentEnd = Math.min(intervalEnd, bounds[bucket + 1]);
+            bookedSeconds[offset + bucket] += segmentEnd - segmentStart;
+            segmentStart = segmentEnd;
+            bucket++;
+        }
+    }
+
+    int getItemCount() {
+        return itemIds.length;
+    }
+
+    int getBucketCount() {
+        return buckets;
+    }
+
+    long getBookedSeconds(int item, int bucket) {
+        return bookedSeconds[item * buckets + bucket];
+    }
+
+    int getApproved(int item) {
+        return approved[item];
+    }
+
+    int getRejected(int item) {
+        return rejected[item];
+    }
+
+    // Бронирования приходят в порядке start, поэтому курсор бакета движется только вперёд.
+    private int bucketOf(long time) {
+        if (time < bounds[cursor]) {
+            cursor = 0;
+        }
+        while (bounds[cursor + 1] <= time) {
+            cursor++;
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@RequiredArgsConstructor
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".start";
+    private static final String STATS_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".stats";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        // асинхронная диспетчеризация продолжает счёт, начатый до освобождения потока контейнера
+        if (request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats) {
+            RequestQueryStats.resume(stats);
+        } else {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            request.setAttribute(STATS_ATTRIBUTE, RequestQueryStats.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // afterCompletion в этом потоке не вызовется, а поток вернётся в пул контейнера
+        RequestQueryStats.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        RequestQueryStats stats = RequestQueryStats.stop();
+        request.removeAttribute(START_ATTRIBUTE);
+        request.removeAttribute(STATS_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod handlerMethod) || start == null) {
+            return;
+        }
+        Tags tags = Tags.of(
+                "controller", handlerMethod.getBeanType().getSimpleName(),
+                "method", handlerMethod.getMethod().getName(),
+                "status", String.valueOf(response.getStatus()));
+
+        Timer.builder("shareit.endpoint.requests")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+        if (stats == null) {
+            return;
+        }
+        DistributionSummary.builder("shareit.endpoint.sql.statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("shareit.endpoint.entity.loads")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getEntityLoads());
+
+        if (stats.getStatements() > properties.getStatementThreshold()) {
+            Counter.builder("shareit.endpoint.n_plus_one")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Возможная проблема N+1: {} {} выполнил {} SQL-запросов и загрузил {} сущностей",
+                    request.getMethod(), request.getRequestURI(), stats.getStatements(), stats.getEntityLoads());
+        }
+    }
+}
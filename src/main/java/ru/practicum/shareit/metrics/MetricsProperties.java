@@ -0,0 +1,10 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.metrics")
+public class MetricsProperties {
+    private long statementThreshold = 20;
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.metrics;
+
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+
+    private RequestQueryStats() {
+    }
+
+    public static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void resume(RequestQueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static RequestQueryStats stop() {
+        RequestQueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static void statementPrepared() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entityLoads++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingEventPayload(long bookingId,
+                                  long itemId,
+                                  long ownerId,
+                                  long bookerId,
+                                  LocalDateTime start,
+                                  LocalDateTime end,
+                                  BookingStatus status) {
+}
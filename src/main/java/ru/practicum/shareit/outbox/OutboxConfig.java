@@ -0,0 +1,45 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.sink.FileOutboxSink;
+import ru.practicum.shareit.outbox.sink.HttpOutboxSink;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+
+import java.nio.file.Path;
+
+// OutboxProperties регистрирует OutboxPublisher: он нужен и при выключенной доставке
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.outbox", name = "enabled", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shareit.outbox.file-sink", name = "path")
+    public FileOutboxSink fileOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileOutboxSink(Path.of(properties.getFileSink().getPath()), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shareit.outbox.http-sink", name = "url")
+    public HttpOutboxSink httpOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new HttpOutboxSink(properties.getHttpSink().getUrl(), properties.getHttpSink().getTimeout(),
+                objectMapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository,
+                                   ObjectProvider<OutboxSink> sinks,
+                                   OutboxProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxRepository, sinks.orderedStream().toList(), properties,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+public record OutboxMessage(long id,
+                            String aggregateType,
+                            long aggregateId,
+                            OutboxEventType type,
+                            @JsonRawValue String payload,
+                            LocalDateTime created) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreated());
+    }
+}
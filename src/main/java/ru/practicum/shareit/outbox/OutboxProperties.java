@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    private boolean enabled = true;
+    private int batchSize = 100;
+    private Duration pollInterval = Duration.ofMillis(500);
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+    private Duration lease = Duration.ofMinutes(1);
+    private FileSink fileSink = new FileSink();
+    private HttpSink httpSink = new HttpSink();
+
+    @Data
+    public static class FileSink {
+        private String path;
+    }
+
+    @Data
+    public static class HttpSink {
+        private URI url;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
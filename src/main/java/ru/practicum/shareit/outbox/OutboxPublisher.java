@@ -0,0 +1,63 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxPublisher {
+    public static final String BOOKING_AGGREGATE = "booking";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingChanged(Booking booking, OutboxEventType type) {
+        publish(new BookingEventPayload(booking.getId(), booking.getItem().getId(),
+                booking.getItem().getOwner().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus()), type);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingChanged(BookingView booking, OutboxEventType type) {
+        publish(new BookingEventPayload(booking.getId(), booking.getItemId(), booking.getOwnerId(),
+                booking.getBookerId(), booking.getStart(), booking.getEnd(), booking.getStatus()), type);
+    }
+
+    private void publish(BookingEventPayload payload, OutboxEventType type) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateType(BOOKING_AGGREGATE)
+                .aggregateId(payload.bookingId())
+                .eventType(type)
+                .payload(toJson(payload))
+                .created(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    private String toJson(BookingEventPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие бронирования " + payload.bookingId(), e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxBacklog;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong backlogRefreshedAt = new AtomicLong();
+    private volatile OutboxBacklog backlog = new OutboxBacklog(0, null);
+    private final Timer deliveryLag;
+    private final Counter delivered;
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelay(OutboxRepository outboxRepository, List<OutboxSink> sinks, OutboxProperties properties,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.backlogRefreshedAt.set(System.nanoTime() - properties.getPollInterval().toNanos());
+        Gauge.builder("shareit.outbox.pending", this, relay -> relay.currentBacklog().pending())
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.lag", this, OutboxRelay::lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("shareit.outbox.delivery.lag")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("shareit.outbox.delivered")
+                .register(meterRegistry);
+    }
+
+    public void relayPending() {
+        while (!sinks.isEmpty() && relayBatch()) {
+            log.debug("Пакет событий outbox доставлен, проверяем следующий");
+        }
+    }
+
+    // транзакция держит блокировки строк только на время захвата пакета, доставка идёт вне её
+    private boolean relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events == null || events.isEmpty()) {
+            return false;
+        }
+        List<OutboxMessage> messages = events.stream()
+                .map(OutboxMessage::of)
+                .toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(messages);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                deliveryFailed(events, sink, e);
+                return false;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(events.stream()
+                .map(OutboxEvent::getId)
+                .toList()));
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            deliveryLag.record(Duration.between(event.getCreated(), now));
+        }
+        delivered.increment(events.size());
+        return true;
+    }
+
+    // захваченные события откладываются на время аренды: другой экземпляр их не возьмёт,
+    // а если этот упадёт во время доставки, события вернутся в работу по истечении аренды
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxRepository.lockDeliverableBatch(now, properties.getBatchSize());
+        LocalDateTime leaseUntil = now.plus(properties.getLease());
+        for (OutboxEvent event : events) {
+            event.setNextAttemptAt(leaseUntil);
+        }
+        return events;
+    }
+
+    private void deliveryFailed(List<OutboxEvent> events, OutboxSink sink, Exception e) {
+        log.warn("Не удалось доставить {} событий outbox получателю {}: {}", events.size(), sink.getName(),
+                e.getMessage());
+        Counter.builder("shareit.outbox.failures")
+                .tag("sink", sink.getName())
+                .register(meterRegistry)
+                .increment(events.size());
+        LocalDateTime now = LocalDateTime.now();
+        String error = sink.getName() + ": " + e;
+        for (OutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+            event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(events));
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = properties.getInitialBackoff().toMillis() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(millis, properties.getMaxBackoff().toMillis()));
+    }
+
+    private OutboxBacklog currentBacklog() {
+        long now = System.nanoTime();
+        long refreshedAt = backlogRefreshedAt.get();
+        if (now - refreshedAt >= properties.getPollInterval().toNanos()
+                && backlogRefreshedAt.compareAndSet(refreshedAt, now)) {
+            backlog = outboxRepository.getBacklog();
+        }
+        return backlog;
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = currentBacklog().oldestCreated();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+    }
+
+    private void relayQuietly() {
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка доставки событий outbox: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (sinks.isEmpty()) {
+            log.info("Получатели событий outbox не настроены, события копятся в таблице outbox");
+            return;
+        }
+        long interval = properties.getPollInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("outbox-relay")
+                .daemon()
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::relayQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
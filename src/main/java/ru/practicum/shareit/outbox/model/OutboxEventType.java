@@ -0,0 +1,7 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum OutboxEventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.outbox.repository;
+
+import java.time.LocalDateTime;
+
+public record OutboxBacklog(long pending, LocalDateTime oldestCreated) {
+}
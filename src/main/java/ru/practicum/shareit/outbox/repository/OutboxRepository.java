@@ -0,0 +1,26 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "select * from outbox o " +
+            "where o.next_attempt_at <= ?1 " +
+            " and not exists (select 1 from outbox p " +
+            "  where p.aggregate_type = o.aggregate_type and p.aggregate_id = o.aggregate_id and p.id < o.id) " +
+            "order by o.id " +
+            "limit ?2 " +
+            "for update skip locked", nativeQuery = true)
+    List<OutboxEvent> lockDeliverableBatch(LocalDateTime now, int limit);
+
+    @Query("select new ru.practicum.shareit.outbox.repository.OutboxBacklog(count(e), min(e.created)) " +
+            "from OutboxEvent e")
+    OutboxBacklog getBacklog();
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FileOutboxSink implements OutboxSink {
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (OutputStream output = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            output.write(OutboxNdjson.write(objectMapper, messages));
+        }
+    }
+}
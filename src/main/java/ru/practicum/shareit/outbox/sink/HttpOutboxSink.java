@@ -0,0 +1,46 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+public class HttpOutboxSink implements OutboxSink {
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(URI url, Duration timeout, ObjectMapper objectMapper) {
+        this.url = url;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(OutboxNdjson.write(objectMapper, messages)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Получатель " + url + " ответил статусом " + response.statusCode());
+        }
+    }
+}
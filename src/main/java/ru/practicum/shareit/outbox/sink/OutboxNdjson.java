@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+final class OutboxNdjson {
+    private OutboxNdjson() {
+    }
+
+    static byte[] write(ObjectMapper objectMapper, List<OutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (OutboxMessage message : messages) {
+            output.write(objectMapper.writeValueAsBytes(message));
+            output.write('\n');
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.OutboxMessage;
+
+import java.util.List;
+
+public interface OutboxSink {
+
+    String getName();
+
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
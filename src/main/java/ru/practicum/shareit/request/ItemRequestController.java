@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDtoOutput addRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @Valid @RequestBody ItemRequestDtoInput itemRequestDtoInput) {
+        log.info("Создание запроса вещи от пользователя id = {}", userId);
+        return itemRequestService.addRequest(userId, itemRequestDtoInput);
+    }
+
+    @GetMapping("/matches")
+    public List<ItemRequestMatchDto> getOwnerMatches(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("Получение запросов, подходящих к вещам владельца id = {}", ownerId);
+        return itemRequestService.getOwnerMatches(ownerId);
+    }
+}
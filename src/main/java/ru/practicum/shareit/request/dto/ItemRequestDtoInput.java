@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ItemRequestDtoInput {
+    @NotBlank(message = "Описание запроса не может быть пустым")
+    @Size(max = 512, message = "Описание запроса не может быть длиннее 512 символов")
+    private String description;
+}
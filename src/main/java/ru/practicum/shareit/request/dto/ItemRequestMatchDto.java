@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ItemRequestMatchDto {
+    private Long requestId;
+    private String requestDescription;
+    private LocalDateTime requestCreated;
+    private Long itemId;
+    private String itemName;
+    private LocalDateTime matched;
+}
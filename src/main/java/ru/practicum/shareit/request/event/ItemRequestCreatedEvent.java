@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.event;
+
+public record ItemRequestCreatedEvent(Long requestId, Long requestorId, String description) {
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+public class ItemRequestMapper {
+
+    public static ItemRequest toItemRequest(ItemRequestDtoInput itemRequestDtoInput, User requestor) {
+        return ItemRequest.builder()
+                .description(itemRequestDtoInput.getDescription())
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public static ItemRequestDtoOutput toItemRequestDtoOutput(ItemRequest itemRequest) {
+        if (itemRequest == null) {
+            return null;
+        }
+        return ItemRequestDtoOutput.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .build();
+    }
+
+    public static ItemRequestMatchDto toItemRequestMatchDto(ItemRequestMatch match) {
+        return ItemRequestMatchDto.builder()
+                .requestId(match.getRequest().getId())
+                .requestDescription(match.getRequest().getDescription())
+                .requestCreated(match.getRequest().getCreated())
+                .itemId(match.getItem().getId())
+                .itemName(match.getItem().getName())
+                .matched(match.getMatched())
+                .build();
+    }
+}
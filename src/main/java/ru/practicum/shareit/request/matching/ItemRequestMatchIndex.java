@@ -0,0 +1,145 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ItemRequestMatchIndex {
+    private final Map<String, Set<Long>> itemIdsByToken = new HashMap<>();
+    private final Map<String, Set<Long>> requestIdsByToken = new HashMap<>();
+    // порядок вставки: при переполнении вытесняются самые старые записи
+    private final Map<Long, Entry> items = new LinkedHashMap<>();
+    private final Map<Long, Entry> requests = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxItems;
+    private final int maxRequests;
+
+    public ItemRequestMatchIndex(int maxItems, int maxRequests) {
+        this.maxItems = maxItems;
+        this.maxRequests = maxRequests;
+    }
+
+    public List<Candidate> addRequest(Long requestId, Long requestorId, Set<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            if (requests.containsKey(requestId)) {
+                return List.of();
+            }
+            put(requests, requestIdsByToken, requestId, new Entry(requestorId, tokens), maxRequests);
+            return collect(tokens, itemIdsByToken, items, requestorId).stream()
+                    .map(itemId -> new Candidate(requestId, itemId, items.get(itemId).userId()))
+                    .toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Candidate> addItem(Long itemId, Long ownerId, Set<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            if (items.containsKey(itemId)) {
+                return List.of();
+            }
+            put(items, itemIdsByToken, itemId, new Entry(ownerId, tokens), maxItems);
+            return collect(tokens, requestIdsByToken, requests, ownerId).stream()
+                    .map(requestId -> new Candidate(requestId, itemId, ownerId))
+                    .toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Candidate> reindexItem(Long itemId, Long ownerId, Set<String> tokens, boolean available) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = remove(items, itemIdsByToken, itemId);
+            if (!available) {
+                return List.of();
+            }
+            put(items, itemIdsByToken, itemId, new Entry(ownerId, tokens), maxItems);
+            // запросы, найденные по прежним словам, уже сопоставлены с вещью
+            Set<Long> requestIds = collect(tokens, requestIdsByToken, requests, ownerId);
+            if (previous != null) {
+                requestIds.removeAll(collect(previous.tokens(), requestIdsByToken, requests, ownerId));
+            }
+            return requestIds.stream()
+                    .map(requestId -> new Candidate(requestId, itemId, ownerId))
+                    .toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeItem(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(items, itemIdsByToken, itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int requestCount() {
+        lock.readLock().lock();
+        try {
+            return requests.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void put(Map<Long, Entry> entries, Map<String, Set<Long>> idsByToken, Long id, Entry entry,
+                            int maxEntries) {
+        entries.put(id, entry);
+        for (String token : entry.tokens()) {
+            idsByToken.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+        }
+        while (entries.size() > maxEntries) {
+            remove(entries, idsByToken, entries.keySet().iterator().next());
+        }
+    }
+
+    private static Entry remove(Map<Long, Entry> entries, Map<String, Set<Long>> idsByToken, Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return null;
+        }
+        for (String token : entry.tokens()) {
+            Set<Long> ids = idsByToken.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByToken.remove(token);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private static Set<Long> collect(Set<String> tokens, Map<String, Set<Long>> idsByToken,
+                                     Map<Long, Entry> entries, Long excludedUserId) {
+        Set<Long> result = new LinkedHashSet<>();
+        for (String token : tokens) {
+            for (Long id : idsByToken.getOrDefault(token, Set.of())) {
+                if (!entries.get(id).userId().equals(excludedUserId)) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private record Entry(Long userId, Set<String> tokens) {
+    }
+
+    public record Candidate(Long requestId, Long itemId, Long ownerId) {
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class ItemRequestMatcher implements SmartInitializingSingleton {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchRepository itemRequestMatchRepository;
+    private final ThreadPoolTaskExecutor matchingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MatchingProperties properties;
+    private final ItemRequestMatchIndex index;
+
+    public ItemRequestMatcher(ItemRepository itemRepository, ItemRequestRepository itemRequestRepository,
+                              ItemRequestMatchRepository itemRequestMatchRepository,
+                              ThreadPoolTaskExecutor matchingExecutor, PlatformTransactionManager transactionManager,
+                              MatchingProperties properties, ItemRequestMatchIndex index) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRequestMatchRepository = itemRequestMatchRepository;
+        this.matchingExecutor = matchingExecutor;
+        // при переполненной очереди сохранение идёт в потоке after-commit, где старая транзакция ещё привязана
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.index = index;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // индекс ограничен, поэтому загружаем только самые новые записи; старые добавляются первыми,
+        // чтобы при вытеснении уходили именно они
+        itemRepository.findRecentAvailableForIndex(Limit.of(properties.getMaxIndexedItems())).reversed()
+                .forEach(item -> index.addItem(item.getId(), item.getOwnerId(),
+                        tokenize(item.getName() + " " + item.getDescription())));
+        itemRequestRepository.findRecentForIndex(Limit.of(properties.getMaxIndexedRequests())).reversed()
+                .forEach(request -> index.addRequest(request.getId(), request.getRequestorId(),
+                        tokenize(request.getDescription())));
+        log.info("Индекс сопоставления запросов загружен: {} предметов, {} запросов",
+                index.itemCount(), index.requestCount());
+    }
+
+    @TransactionalEventListener
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        if (properties.isEnabled()) {
+            submit(index.addRequest(event.requestId(), event.requestorId(), tokenize(event.description())));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        switch (event.type()) {
+            case ADDED -> {
+                if (event.available()) {
+                    submit(index.addItem(event.itemId(), event.ownerId(),
+                            tokenize(event.name() + " " + event.description())));
+                }
+            }
+            case UPDATED -> submit(index.reindexItem(event.itemId(), event.ownerId(),
+                    tokenize(event.name() + " " + event.description()), event.available()));
+            case DELETED -> index.removeItem(event.itemId());
+        }
+    }
+
+    private void submit(List<ItemRequestMatchIndex.Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            matchingExecutor.execute(() -> saveMatches(candidates));
+        } catch (TaskRejectedException e) {
+            // совпадения не теряются: при переполненной очереди сохраняем их в вызывающем потоке
+            log.warn("Очередь сопоставления запросов переполнена, {} совпадений сохраняются синхронно",
+                    candidates.size());
+            saveMatches(candidates);
+        }
+    }
+
+    private void saveMatches(List<ItemRequestMatchIndex.Candidate> candidates) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> itemRequestMatchRepository.saveAll(
+                    newCandidates(candidates).stream().map(candidate -> toMatch(candidate, now)).toList()));
+            log.debug("Сохранено {} совпадений запросов с предметами", candidates.size());
+        } catch (DataIntegrityViolationException e) {
+            // параллельно сохранённая пара нарушила UQ_ITEM_REQUEST_MATCH: остальные сохраняем по одной
+            log.debug("Пакет совпадений конфликтует с уже сохранёнными, сохраняем по одному: {}", e.getMessage());
+            candidates.forEach(candidate -> saveMatch(candidate, now));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить совпадения запросов {}: {}", candidates, e.getMessage());
+        }
+    }
+
+    private void saveMatch(ItemRequestMatchIndex.Candidate candidate, LocalDateTime now) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!newCandidates(List.of(candidate)).isEmpty()) {
+                    itemRequestMatchRepository.saveAndFlush(toMatch(candidate, now));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Совпадение {} уже сохранено", candidate);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить совпадение запроса {}: {}", candidate, e.getMessage());
+        }
+    }
+
+    private List<ItemRequestMatchIndex.Candidate> newCandidates(List<ItemRequestMatchIndex.Candidate> candidates) {
+        Set<Long> requestIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        candidates.forEach(candidate -> {
+            requestIds.add(candidate.requestId());
+            itemIds.add(candidate.itemId());
+        });
+        Set<List<Long>> existing = new HashSet<>();
+        itemRequestMatchRepository.findExisting(requestIds, itemIds)
+                .forEach(match -> existing.add(List.of(match.getRequestId(), match.getItemId())));
+        return candidates.stream()
+                .filter(candidate -> !existing.contains(List.of(candidate.requestId(), candidate.itemId())))
+                .toList();
+    }
+
+    private ItemRequestMatch toMatch(ItemRequestMatchIndex.Candidate candidate, LocalDateTime now) {
+        return ItemRequestMatch.builder()
+                .request(itemRequestRepository.getReferenceById(candidate.requestId()))
+                .item(itemRepository.getReferenceById(candidate.itemId()))
+                .ownerId(candidate.ownerId())
+                .matched(now)
+                .build();
+    }
+
+    private Set<String> tokenize(String text) {
+        return MatchTokenizer.tokenize(text, properties.getMinTokenLength());
+    }
+}
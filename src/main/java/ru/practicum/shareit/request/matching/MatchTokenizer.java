@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class MatchTokenizer {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "with", "need", "want", "looking", "anyone", "please", "have", "any",
+            "нужен", "нужна", "нужно", "нужны", "ищу", "есть", "для", "кто", "или", "пожалуйста");
+
+    public static Set<String> tokenize(String text, int minTokenLength) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= minTokenLength && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
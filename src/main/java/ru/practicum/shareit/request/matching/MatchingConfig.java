@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.matching;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties(MatchingProperties.class)
+public class MatchingConfig {
+
+    @Bean
+    public ItemRequestMatchIndex itemRequestMatchIndex(MatchingProperties properties) {
+        return new ItemRequestMatchIndex(properties.getMaxIndexedItems(), properties.getMaxIndexedRequests());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor matchingExecutor(MatchingProperties properties, Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("request-matching-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(Thread.ofVirtual().name("request-matching-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
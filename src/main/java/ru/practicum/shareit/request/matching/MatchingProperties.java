@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.matching")
+public class MatchingProperties {
+    private boolean enabled = true;
+    private int poolSize = 2;
+    private int queueCapacity = 1000;
+    private int minTokenLength = 3;
+    private int maxIndexedItems = 100_000;
+    private int maxIndexedRequests = 100_000;
+}
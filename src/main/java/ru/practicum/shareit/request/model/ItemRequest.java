@@ -7,23 +7,24 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "requests")
+@Table(name = "item_request")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_request_seq")
+    @SequenceGenerator(name = "item_request_seq", sequenceName = "item_request_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "description", nullable = false, length = 1000)
+    @Column(name = "description", nullable = false, length = 512)
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "requestor_id", nullable = false)
+    @JoinColumn(name = "requester_id", nullable = false)
     private User requestor;
 
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
-}
\ No newline at end of file
+}
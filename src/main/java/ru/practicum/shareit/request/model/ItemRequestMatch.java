@@ -0,0 +1,34 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_request_matches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_request_matches_seq")
+    @SequenceGenerator(name = "item_request_matches_seq", sequenceName = "item_request_matches_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id", nullable = false)
+    private ItemRequest request;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "matched", nullable = false)
+    private LocalDateTime matched;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemRequestMatchRepository extends JpaRepository<ItemRequestMatch, Long> {
+
+    @Query("select m from ItemRequestMatch m join fetch m.request join fetch m.item " +
+            "where m.ownerId = ?1 order by m.id desc")
+    List<ItemRequestMatch> findByOwnerId(Long ownerId);
+
+    // пары (запрос, предмет) проверяются одним запросом; лишние сочетания из двух IN отсекает вызывающий
+    @Query("select m.request.id as requestId, m.item.id as itemId from ItemRequestMatch m " +
+            "where m.request.id in ?1 and m.item.id in ?2")
+    List<MatchKey> findExisting(Collection<Long> requestIds, Collection<Long> itemIds);
+
+    interface MatchKey {
+        Long getRequestId();
+
+        Long getItemId();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    @Query("select r.id as id, r.requestor.id as requestorId, r.description as description from ItemRequest r " +
+            "order by r.id desc")
+    List<ItemRequestIndexView> findRecentForIndex(Limit limit);
+
+    interface ItemRequestIndexView {
+        Long getId();
+
+        Long getRequestorId();
+
+        String getDescription();
+    }
+}
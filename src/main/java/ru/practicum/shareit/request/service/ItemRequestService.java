@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDtoOutput addRequest(Long userId, ItemRequestDtoInput itemRequestDtoInput);
+
+    List<ItemRequestMatchDto> getOwnerMatches(Long ownerId);
+}
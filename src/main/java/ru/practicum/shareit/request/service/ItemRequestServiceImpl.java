@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchRepository itemRequestMatchRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ItemRequestDtoOutput addRequest(Long userId, ItemRequestDtoInput itemRequestDtoInput) {
+        User requestor = userIdentityCache.getUserReference(userId);
+        ItemRequest itemRequest = itemRequestRepository.save(
+                ItemRequestMapper.toItemRequest(itemRequestDtoInput, requestor));
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(itemRequest.getId(), userId,
+                itemRequest.getDescription()));
+        return ItemRequestMapper.toItemRequestDtoOutput(itemRequest);
+    }
+
+    @Override
+    public List<ItemRequestMatchDto> getOwnerMatches(Long ownerId) {
+        userIdentityCache.checkUserExists(ownerId);
+        return itemRequestMatchRepository.findByOwnerId(ownerId)
+                .stream()
+                .map(ItemRequestMapper::toItemRequestMatchDto)
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+@Slf4j
+public class SchemaVersionInitializer extends SqlDataSourceScriptDatabaseInitializer {
+    private static final String OPTIONAL_PREFIX = "optional:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlInitializationProperties properties;
+    private ResourcePatternResolver resourceResolver;
+
+    public SchemaVersionInitializer(DataSource dataSource, SqlInitializationProperties properties) {
+        super(dataSource, properties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(null);
+    }
+
+    @Override
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        super.setResourceLoader(resourceLoader);
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        if (properties.getMode() == DatabaseInitializationMode.NEVER) {
+            return false;
+        }
+        String checksum = checksum();
+        if (checksum.equals(appliedChecksum())) {
+            log.info("Схема БД актуальна (версия {}), инициализация пропущена", checksum.substring(0, 12));
+            return false;
+        }
+        boolean initialized = super.initializeDatabase();
+        recordChecksum(checksum);
+        log.info("Схема БД обновлена до версии {}", checksum.substring(0, 12));
+        return initialized;
+    }
+
+    void recordChecksum(String checksum) {
+        jdbcTemplate.update("delete from schema_version where checksum <> ?", checksum);
+        try {
+            jdbcTemplate.update("insert into schema_version (checksum, applied) values (?, ?)", checksum,
+                    LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            // параллельно стартовавший экземпляр уже записал ту же версию
+            log.debug("Версия схемы {} уже записана другим экземпляром", checksum.substring(0, 12));
+        }
+    }
+
+    private String appliedChecksum() {
+        try {
+            List<String> checksums = jdbcTemplate.queryForList("select checksum from schema_version", String.class);
+            return checksums.size() == 1 ? checksums.getFirst() : null;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private String checksum() {
+        try {
+            // только содержимое: расположение скрипта (jar, распакованный каталог) на версию не влияет
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Charset encoding = properties.getEncoding() != null ? properties.getEncoding() : StandardCharsets.UTF_8;
+            for (Resource resource : scripts()) {
+                digest.update(resource.getContentAsString(encoding).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать скрипты схемы БД", e);
+        }
+    }
+
+    private List<Resource> scripts() throws IOException {
+        List<String> locations = new ArrayList<>();
+        if (properties.getSchemaLocations() != null) {
+            locations.addAll(properties.getSchemaLocations());
+        }
+        if (properties.getDataLocations() != null) {
+            locations.addAll(properties.getDataLocations());
+        }
+        List<Resource> scripts = new ArrayList<>();
+        for (String location : locations) {
+            String path = location.startsWith(OPTIONAL_PREFIX) ? location.substring(OPTIONAL_PREFIX.length()) : location;
+            for (Resource resource : resourceResolver.getResources(path)) {
+                if (resource.exists()) {
+                    scripts.add(resource);
+                }
+            }
+        }
+        return scripts;
+    }
+}
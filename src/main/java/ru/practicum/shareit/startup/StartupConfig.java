@@ -0,0 +1,40 @@
+package ru.practicum.shareit.startup;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInitializationCallbacks() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SmartInitializingSingleton.class, SmartLifecycle.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shareit.startup", name = "report-timings")
+    public StartupTimingsReporter startupTimingsReporter(StartupProperties properties) {
+        return new StartupTimingsReporter(properties);
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(SqlInitializationProperties.class)
+    @ConditionalOnProperty(prefix = "shareit.startup", name = "schema-version-check")
+    static class SchemaVersionConfig {
+
+        @Bean
+        public SchemaVersionInitializer schemaVersionInitializer(DataSource dataSource,
+                                                                 SqlInitializationProperties properties) {
+            return new SchemaVersionInitializer(dataSource, properties);
+        }
+    }
+}
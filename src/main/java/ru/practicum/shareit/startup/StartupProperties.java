@@ -0,0 +1,12 @@
+package ru.practicum.shareit.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.startup")
+public class StartupProperties {
+    private boolean schemaVersionCheck = false;
+    private boolean reportTimings = false;
+    private int slowestBeans = 10;
+}
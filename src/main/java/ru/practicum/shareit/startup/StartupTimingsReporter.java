@@ -0,0 +1,68 @@
+package ru.practicum.shareit.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@RequiredArgsConstructor
+public class StartupTimingsReporter implements ApplicationListener<ApplicationReadyEvent> {
+    private static final List<String> PHASES = List.of(
+            "spring.boot.application.environment-prepared",
+            "spring.boot.application.context-prepared",
+            "spring.boot.application.context-loaded",
+            "spring.context.refresh",
+            "spring.context.beans.post-process");
+
+    private final StartupProperties properties;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        Duration timeTaken = event.getTimeTaken();
+        long ready = timeTaken == null ? uptime : timeTaken.toMillis();
+        log.info("Время запуска: JVM до SpringApplication.run {} мс, run до готовности {} мс, всего {} мс",
+                Math.max(0, uptime - ready), ready, uptime);
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        Map<String, Long> phases = new LinkedHashMap<>();
+        for (String phase : PHASES) {
+            events.stream()
+                    .filter(timelineEvent -> timelineEvent.getStartupStep().getName().equals(phase))
+                    .findFirst()
+                    .ifPresent(timelineEvent -> phases.put(phase, timelineEvent.getDuration().toMillis()));
+        }
+        log.info("Фазы запуска, мс: {}", phases);
+        String slowestBeans = events.stream()
+                .filter(timelineEvent -> timelineEvent.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(properties.getSlowestBeans())
+                .map(timelineEvent -> beanName(timelineEvent.getStartupStep()) + "="
+                        + timelineEvent.getDuration().toMillis())
+                .collect(Collectors.joining(", "));
+        log.info("Самые долгие бины (с зависимостями), мс: {}", slowestBeans);
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals("beanName"))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class PinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String UNKNOWN_FRAME = "unknown";
+
+    private final ThreadingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private RecordingStream stream;
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getPinningThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Диагностика закрепления виртуальных потоков включена, порог {} мс",
+                properties.getPinningThreshold().toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String culprit = culprit(frames);
+        meterRegistry.counter("shareit.threads.pinned", "frame", culprit).increment();
+        log.warn("Виртуальный поток закреплён на несущем потоке {} мс в {}:\n{}",
+                event.getDuration().toMillis(), culprit, describe(event.getStackTrace()));
+    }
+
+    private static String culprit(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinningMonitor::methodName)
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse(UNKNOWN_FRAME);
+    }
+
+    private String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t" + UNKNOWN_FRAME;
+        }
+        return stackTrace.getFrames().stream()
+                .limit(properties.getPinningStackDepth())
+                .map(frame -> "\tat " + methodName(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String methodName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.threads;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.threads")
+public class ThreadingProperties {
+    private int virtualPoolSize = 50;
+    private Duration virtualConnectionTimeout = Duration.ofSeconds(2);
+    private boolean pinningDiagnostics = true;
+    private Duration pinningThreshold = Duration.ofMillis(20);
+    private int pinningStackDepth = 12;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.datasource.RoutingDataSources;
+
+@Slf4j
+@RequiredArgsConstructor
+public class VirtualThreadPoolSizer implements BeanPostProcessor, Ordered {
+    private final ThreadingProperties properties;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            resize(beanName, dataSource);
+        } else if (bean instanceof RoutingDataSources routingDataSources) {
+            routingDataSources.getPools().forEach(pool -> resize(pool.getPoolName(), pool));
+        }
+        return bean;
+    }
+
+    private void resize(String name, HikariDataSource dataSource) {
+        if (dataSource.isRunning()) {
+            return;
+        }
+        dataSource.setMaximumPoolSize(properties.getVirtualPoolSize());
+        dataSource.setConnectionTimeout(properties.getVirtualConnectionTimeout().toMillis());
+        log.info("Пул соединений {} настроен для виртуальных потоков: размер {}, ожидание соединения {} мс",
+                name, dataSource.getMaximumPoolSize(), dataSource.getConnectionTimeout());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
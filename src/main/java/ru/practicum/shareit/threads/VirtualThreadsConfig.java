@@ -0,0 +1,30 @@
+package ru.practicum.shareit.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(ThreadingProperties.class)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor virtualThreadPoolSizer(Environment environment) {
+        return new VirtualThreadPoolSizer(Binder.get(environment)
+                .bindOrCreate("shareit.threads", ThreadingProperties.class));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "shareit.threads", name = "pinning-diagnostics", matchIfMissing = true)
+    public PinningMonitor pinningMonitor(ThreadingProperties properties, MeterRegistry meterRegistry) {
+        return new PinningMonitor(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.tracing;
+
+public enum Layer {
+    CONTROLLER,
+    SERVICE,
+    REPOSITORY,
+    JDBC,
+    SERIALIZATION
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.tracing;
+
+import java.time.Instant;
+
+public class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final int MAX_DEPTH = 64;
+
+    private final String traceId;
+    private final String method;
+    private final String uri;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final long[] exclusiveNanos = new long[Layer.values().length];
+    private final long[] childNanos = new long[MAX_DEPTH];
+    private int depth;
+    private int jdbcStatements;
+    private int status;
+    private long totalNanos;
+
+    private RequestTrace(String traceId, String method, String uri) {
+        this.traceId = traceId;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public static RequestTrace start(String traceId, String method, String uri) {
+        RequestTrace trace = new RequestTrace(traceId, method, uri);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    // асинхронный запрос продолжается в другом потоке контейнера: трассировка переносится через атрибут запроса
+    public void suspend() {
+        CURRENT.remove();
+    }
+
+    public void resume() {
+        CURRENT.set(this);
+    }
+
+    public void finish(int status) {
+        CURRENT.remove();
+        this.status = status;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    void enter() {
+        if (depth < MAX_DEPTH) {
+            childNanos[depth] = 0;
+        }
+        depth++;
+    }
+
+    void exit(Layer layer, long elapsedNanos) {
+        depth--;
+        long children = depth < MAX_DEPTH ? childNanos[depth] : 0;
+        exclusiveNanos[layer.ordinal()] += elapsedNanos - children;
+        if (depth > 0 && depth <= MAX_DEPTH) {
+            childNanos[depth - 1] += elapsedNanos;
+        }
+        if (layer == Layer.JDBC) {
+            jdbcStatements++;
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getExclusiveNanos(Layer layer) {
+        return exclusiveNanos[layer.ordinal()];
+    }
+
+    public int getJdbcStatements() {
+        return jdbcStatements;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class TraceFilter extends OncePerRequestFilter {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    private static final String TRACE_ATTRIBUTE = TraceFilter.class.getName() + ".trace";
+
+    private final TraceRingBuffer traceRingBuffer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = isAsyncDispatch(request) ? (RequestTrace) request.getAttribute(TRACE_ATTRIBUTE) : null;
+        if (trace != null) {
+            trace.resume();
+        } else {
+            trace = start(request, response);
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+        }
+        MDC.put("traceId", trace.getTraceId());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                // поток контейнера освобождён, но ответ ещё пишется: запрос завершит async-диспетчеризация
+                trace.suspend();
+            } else {
+                request.removeAttribute(TRACE_ATTRIBUTE);
+                trace.finish(response.getStatus());
+                traceRingBuffer.add(trace);
+            }
+            MDC.remove("traceId");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private static RequestTrace start(HttpServletRequest request, HttpServletResponse response) {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId == null || traceId.isBlank() || traceId.length() > 64) {
+            traceId = UUID.randomUUID().toString();
+        }
+        response.setHeader(TRACE_ID_HEADER, traceId);
+        return RequestTrace.start(traceId, request.getMethod(), request.getRequestURI());
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class TraceRingBuffer {
+    private final AtomicReferenceArray<RequestTrace> traces;
+    private final AtomicLong position = new AtomicLong();
+
+    public TraceRingBuffer(int capacity) {
+        this.traces = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(RequestTrace trace) {
+        traces.set((int) (position.getAndIncrement() % traces.length()), trace);
+    }
+
+    public List<RequestTrace> slowest(int limit) {
+        List<RequestTrace> snapshot = new ArrayList<>(traces.length());
+        for (int i = 0; i < traces.length(); i++) {
+            RequestTrace trace = traces.get(i);
+            if (trace != null) {
+                snapshot.add(trace);
+            }
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(RequestTrace::getTotalNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final TraceRingBuffer traceRingBuffer;
+
+    @ReadOperation
+    public List<TraceView> slowest(@Nullable Integer limit) {
+        return traceRingBuffer.slowest(limit == null ? DEFAULT_LIMIT : limit)
+                .stream()
+                .map(TraceView::of)
+                .toList();
+    }
+
+    public record TraceView(String traceId, String method, String uri, int status, Instant startedAt,
+                            double totalMs, Map<Layer, Double> layerMs, double otherMs, int jdbcStatements) {
+
+        static TraceView of(RequestTrace trace) {
+            Map<Layer, Double> layers = new EnumMap<>(Layer.class);
+            long accounted = 0;
+            for (Layer layer : Layer.values()) {
+                long nanos = trace.getExclusiveNanos(layer);
+                layers.put(layer, nanos / 1_000_000.0);
+                accounted += nanos;
+            }
+            return new TraceView(trace.getTraceId(), trace.getMethod(), trace.getUri(), trace.getStatus(),
+                    trace.getStartedAt(), trace.getTotalNanos() / 1_000_000.0, layers,
+                    (trace.getTotalNanos() - accounted) / 1_000_000.0, trace.getJdbcStatements());
+        }
+    }
+}
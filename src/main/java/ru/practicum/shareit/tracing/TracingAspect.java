@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+@Aspect
+public class TracingAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Layer.CONTROLLER, joinPoint);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Layer.SERVICE, joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Layer.REPOSITORY, joinPoint);
+    }
+
+    private Object trace(Layer layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+        trace.enter();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            trace.exit(layer, System.nanoTime() - start);
+        }
+    }
+}
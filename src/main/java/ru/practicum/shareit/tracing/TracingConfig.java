@@ -0,0 +1,74 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMessageConverterMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.tracing", name = "enabled", matchIfMissing = true)
+public class TracingConfig {
+    // только основной пул приложения: отдельные пулы (шарды, реплики) в трассировке не участвуют
+    private static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public TraceRingBuffer traceRingBuffer(TracingProperties properties) {
+        return new TraceRingBuffer(properties.getBufferSize());
+    }
+
+    @Bean
+    public FilterRegistrationBean<TraceFilter> traceFilter(TraceRingBuffer traceRingBuffer) {
+        FilterRegistrationBean<TraceFilter> registration = new FilterRegistrationBean<>(new TraceFilter(traceRingBuffer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingAspect tracingAspect() {
+        return new TracingAspect();
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(TraceRingBuffer traceRingBuffer) {
+        return new TracesEndpoint(traceRingBuffer);
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (PRIMARY_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // сериализация тела ответа идёт после выхода из контроллера: оборачиваем обработчики, пишущие тело конвертерами
+    @Bean
+    public static BeanPostProcessor tracingReturnValueHandlerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter adapter && adapter.getReturnValueHandlers() != null) {
+                    adapter.setReturnValueHandlers(adapter.getReturnValueHandlers().stream()
+                            .map(handler -> handler instanceof AbstractMessageConverterMethodProcessor
+                                    ? new TracingReturnValueHandler(handler) : handler)
+                            .toList());
+                }
+                return bean;
+            }
+        };
+    }
+}
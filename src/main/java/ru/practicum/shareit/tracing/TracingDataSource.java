@@ -0,0 +1,79 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), this::connectionCall);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), this::connectionCall);
+    }
+
+    private Object connectionCall(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        return switch (method.getName()) {
+            case "prepareStatement" -> proxy(PreparedStatement.class, result, this::statementCall);
+            case "prepareCall" -> proxy(CallableStatement.class, result, this::statementCall);
+            case "createStatement" -> proxy(Statement.class, result, this::statementCall);
+            default -> result;
+        };
+    }
+
+    private Object statementCall(Object target, Method method, Object[] args) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null || !method.getName().startsWith("execute")) {
+            return invoke(target, method, args);
+        }
+        trace.enter();
+        long start = System.nanoTime();
+        try {
+            return invoke(target, method, args);
+        } finally {
+            trace.exit(Layer.JDBC, System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, TargetInvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") && args != null && ((Class<?>) args[0]).isInstance(target)) {
+                return target;
+            }
+            return handler.invoke(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.tracing")
+public class TracingProperties {
+    private boolean enabled = true;
+    private int bufferSize = 1024;
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@RequiredArgsConstructor
+public class TracingReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandler delegate;
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return delegate.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+        trace.enter();
+        long start = System.nanoTime();
+        try {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        } finally {
+            trace.exit(Layer.SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+}
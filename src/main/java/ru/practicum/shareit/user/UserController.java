@@ -1,28 +1,67 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.shareit.user.dto.UserBatchDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int STREAM_CHUNK_SIZE = 500;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
+    // полная страница значит, что дальше могут быть ещё пользователи: отдаём ссылку на следующую
     @GetMapping
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) Long afterId,
+                                                     @RequestParam(required = false) Integer size) {
+        log.info("Получить страницу пользователей после id = {}, размер = {}", afterId, size);
+        List<UserDto> page = userService.getUsersDtoPage(afterId, size);
+        int pageSize = size == null ? UserService.DEFAULT_PAGE_SIZE : size;
+        if (page.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("afterId", page.get(page.size() - 1).getId())
+                .replaceQueryParam("size", pageSize)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    @GetMapping(params = "ids")
     @ResponseStatus(HttpStatus.OK)
-    public Collection<UserDto> getAllUsers() {
-        log.info("Получить всех пользователей");
-        return userService.getAllUsersDto();
+    public UserBatchDto getUsersByIds(@RequestParam List<Long> ids) {
+        log.info("Получить пользователей по списку id = {}", ids);
+        return userService.getUsersDtoByIds(ids);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(required = false) Long afterId) {
+        log.info("Потоковая выгрузка пользователей после id = {}", afterId);
+        StreamingResponseBody body = outputStream -> writeUsers(outputStream, afterId == null ? 0L : afterId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{userId}")
@@ -52,4 +91,19 @@ public class UserController {
         log.info("Удалить пользователя с id = {}", userId);
         return userService.deleteUserById(userId);
     }
+
+    private void writeUsers(OutputStream outputStream, Long afterId) throws IOException {
+        List<UserDto> chunk = userService.getUsersDtoPage(afterId, STREAM_CHUNK_SIZE);
+        while (!chunk.isEmpty()) {
+            for (UserDto userDto : chunk) {
+                outputStream.write(objectMapper.writeValueAsBytes(userDto));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+            if (chunk.size() < STREAM_CHUNK_SIZE) {
+                break;
+            }
+            chunk = userService.getUsersDtoPage(chunk.get(chunk.size() - 1).getId(), STREAM_CHUNK_SIZE);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.user-cache")
+public class UserCacheProperties {
+    private long maximumSize = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
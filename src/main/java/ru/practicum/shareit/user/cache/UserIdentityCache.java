@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+@Component
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserIdentityCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> knownUserIds;
+
+    public UserIdentityCache(UserRepository userRepository, UserCacheProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.knownUserIds = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, knownUserIds, "user-identity");
+    }
+
+    public void checkUserExists(Long userId) {
+        if (userId != null && knownUserIds.getIfPresent(userId) != null) {
+            return;
+        }
+        if (userId != null && userRepository.existsById(userId)) {
+            knownUserIds.put(userId, Boolean.TRUE);
+            return;
+        }
+        throw new EntityNotFoundException("Пользователь с id " + userId + " не найден");
+    }
+
+    // ссылка уходит во внешний ключ; если пользователя удалили в обход сервиса, нарушение ключа
+    // при коммите превращается в 404 (GlobalExceptionHandler), а запись кэша сбрасывается при откате
+    public User getUserReference(Long userId) {
+        checkUserExists(userId);
+        invalidateOnRollback(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    private void invalidateOnRollback(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        knownUserIds.invalidate(userId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void invalidate(Long userId) {
+        knownUserIds.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    knownUserIds.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        knownUserIds.invalidateAll();
+    }
+}
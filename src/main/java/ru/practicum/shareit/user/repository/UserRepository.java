@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    boolean existsByEmail(String email);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
\ No newline at end of file
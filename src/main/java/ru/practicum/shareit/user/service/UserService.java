@@ -2,15 +2,20 @@ package ru.practicum.shareit.user.service;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import ru.practicum.shareit.user.dto.UserBatchDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.Collection;
+import java.util.List;
 
 public interface UserService {
-    Collection<UserDto> getAllUsersDto();
+    int DEFAULT_PAGE_SIZE = 100;
+
+    List<UserDto> getUsersDtoPage(Long afterId, Integer size);
 
     UserDto getUserDtoById(@Positive Long userId);
 
+    UserBatchDto getUsersDtoByIds(List<Long> userIds);
+
     UserDto addNewUser(@Valid UserDto userDto);
 
     UserDto updateUser(@Positive Long id, @Valid UserDto userDto);
@@ -1,26 +1,47 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.cache.SecondLevelCacheEvictor;
+import ru.practicum.shareit.etag.ResourceVersions;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
+import ru.practicum.shareit.user.dto.UserBatchDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 100;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final BookingStorage bookingStorage;
+    private final ResourceVersions resourceVersions;
 
     @Override
-    public Collection<UserDto> getAllUsersDto() {
-        return userRepository.findAll()
+    public List<UserDto> getUsersDtoPage(Long afterId, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize))
                 .stream()
                 .map(UserMapper::toUserDto)
                 .toList();
@@ -31,33 +52,61 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(getUserById(userId));
     }
 
+    @Override
+    public UserBatchDto getUsersDtoByIds(List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество id в запросе должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        // пустой элемент списка (ids=1,,2) приходит как null
+        if (ids.stream().anyMatch(id -> id == null || id < 1)) {
+            throw new ValidationException("Список id должен содержать только положительные числа");
+        }
+        Map<Long, User> usersById = userRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserDto> users = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            User user = usersById.get(id);
+            if (user != null) {
+                users.add(UserMapper.toUserDto(user));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return UserBatchDto.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
     @Override
     @Transactional
     public UserDto addNewUser(UserDto userDto) {
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            throw new RuntimeException("Пользователь с таким email уже существует");
-        }
         User user = UserMapper.toUser(userDto);
-        return UserMapper.toUserDto(userRepository.save(user));
+        return UserMapper.toUserDto(saveUser(user));
     }
 
     @Override
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User userToUpdate = getUserById(id);
+        userIdentityCache.invalidate(id);
 
         if (userDto.getEmail() != null && !userDto.getEmail().equals(userToUpdate.getEmail())) {
-            if (userRepository.existsByEmail(userDto.getEmail())) {
-                throw new RuntimeException("Пользователь с таким email уже существует");
-            }
             userToUpdate.setEmail(userDto.getEmail());
         }
 
         if (Objects.nonNull(userDto.getName()) && !userDto.getName().isBlank()) {
             userToUpdate.setName(userDto.getName());
         }
+        resourceVersions.usersChanged();
 
-        return UserMapper.toUserDto(userToUpdate);
+        User saved = saveUser(userToUpdate);
+        bookingStorage.updateBooker(id, saved.getName(), saved.getEmail());
+        return UserMapper.toUserDto(saved);
     }
 
     @Override
@@ -65,9 +114,24 @@ public class UserServiceImpl implements UserService {
     public UserDto deleteUserById(Long id) {
         User user = getUserById(id);
         userRepository.deleteById(id);
+        userIdentityCache.invalidate(id);
+        secondLevelCacheEvictor.evictItems();
+        resourceVersions.usersChanged();
         return UserMapper.toUserDto(user);
     }
 
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException cause
+                    && cause.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new EmailAlreadyExistsException("Пользователь с email " + user.getEmail() + " уже существует");
+            }
+            throw e;
+        }
+    }
+
     private User getUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь с id " + userId + " не найден"));
@@ -0,0 +1,3 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email));
+
+CREATE UNIQUE INDEX IF NOT EXISTS UQ_USER_EMAIL_LOWER ON users (email_lower);
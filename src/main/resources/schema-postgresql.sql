@@ -0,0 +1,8 @@
+CREATE UNIQUE INDEX IF NOT EXISTS UQ_USER_EMAIL_LOWER ON users (LOWER(email));
+
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users)));
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id), 0) FROM items)));
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings)));
+SELECT setval('item_request_seq', GREATEST((SELECT last_value FROM item_request_seq), (SELECT COALESCE(MAX(id), 0) FROM item_request)));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments)));
+SELECT setval('item_request_matches_seq', GREATEST((SELECT last_value FROM item_request_matches_seq), (SELECT COALESCE(MAX(id), 0) FROM item_request_matches)));
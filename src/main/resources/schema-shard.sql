@@ -0,0 +1,35 @@
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id               BIGINT                                  NOT NULL,
+    start_date       TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    end_date         TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    status           VARCHAR(25)                             NOT NULL,
+    item_id          BIGINT                                  NOT NULL,
+    owner_id         BIGINT                                  NOT NULL,
+    item_name        VARCHAR(255)                            NOT NULL,
+    item_description VARCHAR(255)                            NOT NULL,
+    item_available   BOOLEAN,
+    booker_id        BIGINT                                  NOT NULL,
+    booker_name      VARCHAR(255)                            NOT NULL,
+    booker_email     VARCHAR(512)                            NOT NULL,
+    CONSTRAINT PK_BOOKING PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_OWNER_START ON bookings (owner_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_OWNER_END ON bookings (owner_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_OWNER_STATUS ON bookings (owner_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_START ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_END ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_STATUS ON bookings (booker_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_ITEM_END ON bookings (booker_id, item_id, status, end_date);
+
+CREATE TABLE IF NOT EXISTS shard_layout
+(
+    id          INTEGER                                      NOT NULL,
+    shard_index INTEGER                                      NOT NULL,
+    shard_count INTEGER                                      NOT NULL,
+    CONSTRAINT PK_SHARD_LAYOUT PRIMARY KEY (id)
+);
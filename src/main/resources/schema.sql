@@ -1,6 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_request_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_request_matches_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT                                  NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512)                            NOT NULL,
     CONSTRAINT PK_USER PRIMARY KEY (id),
@@ -9,7 +16,7 @@ CREATE TABLE IF NOT EXISTS users
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR(255)                            NOT NULL,
     description  VARCHAR(255)                            NOT NULL,
     is_available BOOLEAN,
@@ -21,7 +28,7 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT                                  NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date   TIMESTAMP WITHOUT TIME ZONE,
     item_id    BIGINT                                  NOT NULL,
@@ -32,9 +39,38 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT FK_BOOKING_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id)
 );
 
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_BOOKER_ITEM_END ON bookings (booker_id, item_id, status, end_date);
+
+CREATE TABLE IF NOT EXISTS booking_view
+(
+    booking_id       BIGINT                                  NOT NULL,
+    start_date       TIMESTAMP WITHOUT TIME ZONE,
+    end_date         TIMESTAMP WITHOUT TIME ZONE,
+    status           VARCHAR(25),
+    item_id          BIGINT                                  NOT NULL,
+    owner_id         BIGINT                                  NOT NULL,
+    item_name        VARCHAR(255)                            NOT NULL,
+    item_description VARCHAR(255)                            NOT NULL,
+    item_available   BOOLEAN,
+    booker_id        BIGINT                                  NOT NULL,
+    booker_name      VARCHAR(255)                            NOT NULL,
+    booker_email     VARCHAR(512)                            NOT NULL,
+    CONSTRAINT PK_BOOKING_VIEW PRIMARY KEY (booking_id),
+    CONSTRAINT FK_BOOKING_VIEW_FOR_BOOKING FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_OWNER_START ON booking_view (owner_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_OWNER_END ON booking_view (owner_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_OWNER_STATUS ON booking_view (owner_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_BOOKER_START ON booking_view (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_BOOKER_END ON booking_view (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_BOOKER_STATUS ON booking_view (booker_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKING_VIEW_ITEM ON booking_view (item_id);
+
 CREATE TABLE IF NOT EXISTS item_request
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     description  VARCHAR(512)                            NOT NULL,
     requester_id BIGINT,
     created      TIMESTAMP                               NOT NULL,
@@ -44,7 +80,7 @@ CREATE TABLE IF NOT EXISTS item_request
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT                                  NOT NULL,
     text      VARCHAR(1024)                           NOT NULL,
     item_id   BIGINT                                  NOT NULL,
     author_id BIGINT                                  NOT NULL,
@@ -52,4 +88,78 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT PK_COMMENTS PRIMARY KEY (id),
     CONSTRAINT FK_COMMENT_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT FK_COMMENT_FOR_USER FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_request_matches
+(
+    id         BIGINT                                  NOT NULL,
+    request_id BIGINT                                  NOT NULL,
+    item_id    BIGINT                                  NOT NULL,
+    owner_id   BIGINT                                  NOT NULL,
+    matched    TIMESTAMP                               NOT NULL,
+    CONSTRAINT PK_ITEM_REQUEST_MATCH PRIMARY KEY (id),
+    CONSTRAINT UQ_ITEM_REQUEST_MATCH UNIQUE (request_id, item_id),
+    CONSTRAINT FK_MATCH_FOR_REQUEST FOREIGN KEY (request_id) REFERENCES item_request (id) ON DELETE CASCADE,
+    CONSTRAINT FK_MATCH_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST_MATCH_OWNER ON item_request_matches (owner_id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    user_id         BIGINT                                  NOT NULL,
+    idempotency_key VARCHAR(255)                            NOT NULL,
+    fingerprint     VARCHAR(64)                             NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    response        TEXT,
+    created         TIMESTAMP                               NOT NULL,
+    CONSTRAINT PK_IDEMPOTENCY_KEY PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS IX_IDEMPOTENCY_KEY_CREATED ON idempotency_keys (created);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id              BIGINT                                  NOT NULL,
+    aggregate_type  VARCHAR(50)                             NOT NULL,
+    aggregate_id    BIGINT                                  NOT NULL,
+    event_type      VARCHAR(50)                             NOT NULL,
+    payload         TEXT                                    NOT NULL,
+    created         TIMESTAMP                               NOT NULL,
+    attempts        INTEGER                                 NOT NULL,
+    next_attempt_at TIMESTAMP                               NOT NULL,
+    last_error      VARCHAR(1024),
+    CONSTRAINT PK_OUTBOX PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS IX_OUTBOX_AGGREGATE ON outbox (aggregate_type, aggregate_id, id);
+CREATE INDEX IF NOT EXISTS IX_OUTBOX_NEXT_ATTEMPT ON outbox (next_attempt_at, id);
+
+CREATE TABLE IF NOT EXISTS schema_version
+(
+    checksum VARCHAR(64)                                     NOT NULL,
+    applied  TIMESTAMP                                       NOT NULL,
+    CONSTRAINT PK_SCHEMA_VERSION PRIMARY KEY (checksum)
+);
+
+CREATE TABLE IF NOT EXISTS data_migration
+(
+    name    VARCHAR(100)                                     NOT NULL,
+    applied TIMESTAMP                                        NOT NULL,
+    CONSTRAINT PK_DATA_MIGRATION PRIMARY KEY (name)
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS etag_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS etag_version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS etag_generation
+(
+    id      INTEGER                                          NOT NULL,
+    version BIGINT                                           NOT NULL,
+    CONSTRAINT PK_ETAG_GENERATION PRIMARY KEY (id)
+);
+
+INSERT INTO etag_generation (id, version) SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM etag_generation);
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void userOverBurstGetsTooManyRequestsWithRetryAfter() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBurst(3);
+        properties.setRequestsPerSecond(0.5);
+        AdmissionFilter filter = new AdmissionFilter(properties, new ObjectMapper(), meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform(filter, "GET", "/items/1", 1L, new MockFilterChain()).getStatus());
+        }
+        MockHttpServletResponse rejected = perform(filter, "GET", "/items/1", 1L, new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Ошибка допуска запроса"));
+
+        assertEquals(200, perform(filter, "GET", "/items/1", 2L, new MockFilterChain()).getStatus());
+        assertEquals(1.0, rejections("rate_limit", "all"));
+    }
+
+    @Test
+    void saturatedBulkheadShedsLoadWithServiceUnavailable() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBulkheads(Map.of("owner-bookings",
+                new AdmissionProperties.Bulkhead("GET", "/bookings/owner", 1, 1, Duration.ofMillis(50))));
+        AdmissionFilter filter = new AdmissionFilter(properties, new ObjectMapper(), meterRegistry);
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MockHttpServletResponse> inFlight =
+                executor.submit(() -> perform(filter, "GET", "/bookings/owner", 1L, blocking));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = perform(filter, "GET", "/bookings/owner", 2L, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(200, perform(filter, "GET", "/bookings", 2L, new MockFilterChain()).getStatus());
+
+        release.countDown();
+        assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).getStatus());
+        executor.shutdown();
+        assertEquals(200, perform(filter, "GET", "/bookings/owner", 2L, new MockFilterChain()).getStatus());
+        assertEquals(1.0, rejections("bulkhead", "owner-bookings"));
+    }
+
+    @Test
+    void everyUserHasOwnBucket() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBurst(1);
+        properties.setRequestsPerSecond(0.01);
+        AdmissionFilter filter = new AdmissionFilter(properties, new ObjectMapper(), meterRegistry);
+
+        // раньше состояние делилось между пользователями одной полосы, и соседи отнимали друг у друга запросы
+        for (long userId = 1; userId <= 20_000; userId++) {
+            assertEquals(200, perform(filter, "GET", "/items/1", userId, new MockFilterChain()).getStatus());
+        }
+        assertEquals(429, perform(filter, "GET", "/items/1", 1L, new MockFilterChain()).getStatus());
+        assertEquals(1.0, rejections("rate_limit", "all"));
+    }
+
+    @Test
+    void defaultBulkheadsKeepDeclarationOrder() {
+        assertEquals(List.of("owner-bookings", "booker-bookings", "item-search", "item-stats", "owner-items"),
+                List.copyOf(new AdmissionProperties().getBulkheads().keySet()));
+    }
+
+    private MockHttpServletResponse perform(AdmissionFilter filter, String method, String uri, Long userId,
+                                            FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(AdmissionFilter.USER_ID_HEADER, userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double rejections(String reason, String endpoint) {
+        return meterRegistry.get("shareit.admission.rejected")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.booking.service.BookingViewMigration;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class BookingViewTest extends ApiTestSupport {
+    @Autowired
+    private BookingViewMigration bookingViewMigration;
+
+    @Test
+    void listsFollowBookingItemAndBookerChanges() throws Exception {
+        long owner = createUser("owner");
+        long booker = createUser("booker");
+        long itemId = createItem(owner, "drill");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = createBooking(booker, itemId, start, start.plusDays(1));
+
+        assertEquals(bookingId, list("/bookings/owner", owner, "WAITING").get("id").asLong());
+
+        assertEquals(200, decide(owner, bookingId, false).getStatus());
+        performOk(patch("/items/{id}", itemId).header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"hammer drill\",\"available\":false}"));
+        String email = UUID.randomUUID() + "@shareit.ru";
+        performOk(patch("/users/{id}", booker).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"renamed\",\"email\":\"" + email + "\"}"));
+
+        for (JsonNode booking : new JsonNode[]{list("/bookings/owner", owner, "REJECTED"),
+                list("/bookings", booker, "FUTURE")}) {
+            assertEquals(bookingId, booking.get("id").asLong());
+            assertEquals("REJECTED", booking.get("status").asText());
+            assertEquals(start, LocalDateTime.parse(booking.get("start").asText()));
+            assertEquals("hammer drill", booking.get("item").get("name").asText());
+            assertEquals("drill", booking.get("item").get("description").asText());
+            assertEquals(false, booking.get("item").get("available").asBoolean());
+            assertEquals("renamed", booking.get("booker").get("name").asText());
+            assertEquals(email, booking.get("booker").get("email").asText());
+        }
+        assertEquals(0, json(performOk(get("/bookings/owner").header(USER_HEADER, owner)
+                .param("state", "WAITING"))).size());
+    }
+
+    @Test
+    void missingViewRowsAreFilledOnceOnStartup() throws Exception {
+        long owner = createUser("owner");
+        long booker = createUser("booker");
+        long itemId = createItem(owner, "tent");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = createBooking(booker, itemId, start, start.plusDays(1));
+        // база до появления booking_view: бронирование есть, строки представления нет
+        jdbcTemplate.update("delete from booking_view where booking_id = ?", bookingId);
+        jdbcTemplate.update("delete from data_migration where name = 'booking_view_backfill'");
+        assertEquals(404, perform(get("/bookings/{id}", bookingId).header(USER_HEADER, booker)).getStatus());
+
+        bookingViewMigration.migrate();
+
+        assertEquals(bookingId, id(performOk(get("/bookings/{id}", bookingId).header(USER_HEADER, booker))));
+        assertEquals(bookingId, list("/bookings/owner", owner, "ALL").get("id").asLong());
+
+        jdbcTemplate.update("delete from booking_view where booking_id = ?", bookingId);
+        bookingViewMigration.migrate();
+
+        assertEquals(404, perform(get("/bookings/{id}", bookingId).header(USER_HEADER, booker)).getStatus());
+    }
+
+    private JsonNode list(String path, long userId, String state) throws Exception {
+        JsonNode bookings = json(performOk(get(path).header(USER_HEADER, userId).param("state", state)));
+        assertEquals(1, bookings.size());
+        return bookings.get(0);
+    }
+}
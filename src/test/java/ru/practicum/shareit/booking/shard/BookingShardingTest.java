@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.support.ApiTestSupport;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(properties = {
+        "shareit.booking.sharding.enabled=true",
+        "shareit.booking.sharding.shards[0].url=jdbc:h2:mem:booking-shard-0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "shareit.booking.sharding.shards[1].url=jdbc:h2:mem:booking-shard-1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "shareit.booking.sharding.shards[2].url=jdbc:h2:mem:booking-shard-2;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "shareit.matching.enabled=false"})
+class BookingShardingTest extends ApiTestSupport {
+    private static final int[] START_DAYS = {3, 1, 5, 2, 6, 4};
+
+    @Autowired
+    private BookingShards bookingShards;
+    @Autowired
+    private JdbcTemplate primary;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Test
+    void bookingsAreRoutedByOwnerAndMergedForBooker() throws Exception {
+        long booker = createUser("booker");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Map<Long, Long> ownerByBooking = new HashMap<>();
+        Map<Long, Long> itemByBooking = new HashMap<>();
+        Set<Integer> usedShards = new HashSet<>();
+        for (int days : START_DAYS) {
+            long owner = createUser("owner");
+            long itemId = createItem(owner, "drill");
+            LocalDateTime start = now.plusDays(days);
+            long bookingId = createBooking(booker, itemId, start, start.plusHours(12));
+            ownerByBooking.put(bookingId, owner);
+            itemByBooking.put(bookingId, itemId);
+            usedShards.add(bookingShards.forOwner(owner).index());
+        }
+        assertTrue(usedShards.size() > 1, "Все владельцы попали в один шард");
+
+        for (Map.Entry<Long, Long> booking : ownerByBooking.entrySet()) {
+            for (BookingShards.Shard shard : bookingShards.all()) {
+                Integer rows = shard.jdbc().getJdbcOperations()
+                        .queryForObject("select count(*) from bookings where id = ?", Integer.class, booking.getKey());
+                int expected = shard == bookingShards.forOwner(booking.getValue()) ? 1 : 0;
+                assertEquals(expected, rows);
+            }
+            JsonNode ownerBookings = list("/bookings/owner", booking.getValue(), "ALL");
+            assertEquals(1, ownerBookings.size());
+            assertEquals(booking.getKey(), ownerBookings.get(0).get("id").asLong());
+        }
+        assertEquals(0, primary.queryForObject("select count(*) from bookings where booker_id = ?", Integer.class,
+                booker));
+
+        List<Long> expectedOrder = ownerByBooking.keySet().stream()
+                .sorted(Comparator.comparing((Long id) -> startOf(id, booker)).reversed())
+                .toList();
+        assertEquals(expectedOrder, ids(list("/bookings", booker, "ALL")));
+        assertEquals(expectedOrder, ids(list("/bookings", booker, "FUTURE")));
+
+        long approvedId = expectedOrder.get(2);
+        long approvedOwner = ownerByBooking.get(approvedId);
+        assertEquals(200, decide(approvedOwner, approvedId, true).getStatus());
+        JsonNode approved = json(performOk(get("/bookings/{id}", approvedId)
+                .header(USER_HEADER, booker)));
+        assertEquals("APPROVED", approved.get("status").asText());
+        assertEquals(START_DAYS.length - 1, list("/bookings", booker, "WAITING").size());
+        JsonNode item = json(performOk(get("/items/{id}", itemByBooking.get(approvedId))
+                .header(USER_HEADER, approvedOwner)));
+        assertEquals(approvedId, item.get("nextBooking").get("id").asLong());
+
+        performOk(patch("/users/{id}", booker).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"renamed\"}"));
+        for (JsonNode booking : list("/bookings", booker, "ALL")) {
+            assertEquals("renamed", booking.get("booker").get("name").asText());
+        }
+    }
+
+    @Test
+    void shardWritesAreRevertedWhenTransactionRollsBack() throws Exception {
+        long owner = createUser("owner");
+        long booker = createUser("booker");
+        long itemId = createItem(owner, "drill");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = createBooking(booker, itemId, start, start.plusDays(1));
+        BookingShards.Shard shard = bookingShards.forOwner(owner);
+        Map<String, Object> before = shardRow(shard, bookingId);
+
+        List<Long> added = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            BookingDtoInput input = new BookingDtoInput();
+            input.setStart(start.plusDays(5));
+            input.setEnd(start.plusDays(6));
+            Booking booking = BookingMapper.toBooking(input, itemRepository.findById(itemId).orElseThrow(),
+                    userRepository.findById(booker).orElseThrow());
+            booking.setStatus(BookingStatus.WAITING);
+            added.add(bookingStorage.addBooking(booking).getId());
+            BookingView view = bookingStorage.getBookingById(bookingId).orElseThrow();
+            bookingStorage.updateStatus(view, BookingStatus.APPROVED);
+            bookingStorage.updateItem(owner, itemId, "hammer", "heavy", false);
+            bookingStorage.updateBooker(booker, "renamed", "renamed@shareit.ru");
+            transaction.setRollbackOnly();
+        });
+
+        assertEquals(0, shard.jdbc().getJdbcOperations()
+                .queryForObject("select count(*) from bookings where id = ?", Integer.class, added.getFirst()));
+        assertEquals(before, shardRow(shard, bookingId));
+    }
+
+    @Test
+    void changedShardCountIsRejected() {
+        ShardingProperties properties = new ShardingProperties();
+        for (int i = 0; i < 2; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:booking-shard-" + i + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            properties.getShards().add(shard);
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new ShardingConfig().bookingShards(properties, dataSourceProperties));
+        assertTrue(e.getMessage().contains("0 из 3"), e.getMessage());
+    }
+
+    private static Map<String, Object> shardRow(BookingShards.Shard shard, long bookingId) {
+        return new HashMap<>(shard.jdbc().getJdbcOperations().queryForMap("select status, item_name, " +
+                "item_description, item_available, booker_name, booker_email from bookings where id = ?", bookingId));
+    }
+
+    private LocalDateTime startOf(long bookingId, long booker) {
+        try {
+            return LocalDateTime.parse(json(performOk(get("/bookings/{id}", bookingId)
+                    .header(USER_HEADER, booker))).get("start").asText());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode list(String path, long userId, String state) throws Exception {
+        return json(performOk(get(path).header(USER_HEADER, userId).param("state", state)));
+    }
+
+    private static List<Long> ids(JsonNode bookings) {
+        List<Long> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.get("id").asLong()));
+        return ids;
+    }
+}
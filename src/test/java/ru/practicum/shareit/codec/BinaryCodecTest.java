@@ -0,0 +1,105 @@
+package ru.practicum.shareit.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.idempotency.IdempotencyFilter;
+import ru.practicum.shareit.idempotency.IdempotencyProperties;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class BinaryCodecTest extends ApiTestSupport {
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        long owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+    }
+
+    @Test
+    void bookingRoundTripsThroughCborWithEpochTimestamps() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        byte[] body = cborMapper.writeValueAsBytes(Map.of("itemId", itemId,
+                "start", epochMillis(start), "end", epochMillis(start.plusDays(1))));
+
+        MockHttpServletResponse created = mockMvc.perform(post("/bookings").header(USER_HEADER, booker)
+                        .contentType(CBOR).accept(CBOR).content(body))
+                .andReturn().getResponse();
+        assertEquals(201, created.getStatus());
+        assertTrue(CBOR.isCompatibleWith(MediaType.parseMediaType(created.getContentType())));
+        JsonNode booking = cborMapper.readTree(created.getContentAsByteArray());
+        assertTrue(booking.get("start").isIntegralNumber());
+        assertEquals(epochMillis(start), booking.get("start").asLong());
+
+        long bookingId = booking.get("id").asLong();
+        JsonNode smile = smileMapper.readTree(mockMvc.perform(get("/bookings/" + bookingId)
+                        .header(USER_HEADER, booker).accept(SMILE))
+                .andReturn().getResponse().getContentAsByteArray());
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get("/bookings/" + bookingId)
+                        .header(USER_HEADER, booker).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(epochMillis(start), smile.get("start").asLong());
+        assertEquals(start, LocalDateTime.parse(json.get("start").asText()));
+    }
+
+    @Test
+    void binaryResponseIsReplayedByteForByte() throws Exception {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(0);
+        String body = bookingBody(itemId, start, start.plusDays(1));
+
+        MockHttpServletResponse first = createBooking(key, body);
+        MockHttpServletResponse replayed = createBooking(key, body);
+        // в текстовой колонке тело CBOR лежит в Base64
+        IdempotencyStore.StoredResponse stored = new IdempotencyStore(jdbcTemplate, idempotencyProperties)
+                .find(new IdempotencyStore.Key(booker, key));
+
+        assertEquals(201, replayed.getStatus());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertArrayEquals(first.getContentAsByteArray(), replayed.getContentAsByteArray());
+        assertArrayEquals(first.getContentAsByteArray(), Base64.getDecoder().decode(stored.body()));
+    }
+
+    private MockHttpServletResponse createBooking(String key, String body) throws Exception {
+        return mockMvc.perform(post("/bookings").header(USER_HEADER, booker)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).accept(CBOR)
+                        .content(body))
+                .andReturn().getResponse();
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
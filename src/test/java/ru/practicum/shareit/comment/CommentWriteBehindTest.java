@@ -0,0 +1,125 @@
+package ru.practicum.shareit.comment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.comment.writer.CommentWriteBehind;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "shareit.matching.enabled=false",
+        "shareit.comment.write-behind.enabled=true",
+        "shareit.comment.write-behind.flush-interval=200ms",
+        "shareit.comment.write-behind.retry-backoff=50ms",
+        "shareit.comment.write-behind.max-retry-backoff=200ms"
+})
+class CommentWriteBehindTest extends ApiTestSupport {
+    private static final int COMMENTS = 30;
+
+    @Autowired
+    private CommentWriteBehind commentWriteBehind;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void createFinishedBooking() throws Exception {
+        long owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+        insertFinishedBooking(booker, itemId);
+    }
+
+    @Test
+    void authorSeesCommentBeforeItIsWritten() throws Exception {
+        long commentId = id(addComment("great drill"));
+
+        JsonNode comments = json(performOk(get("/items/{id}", itemId).header(USER_HEADER, booker))).get("comments");
+        assertEquals(1, comments.size());
+        assertEquals(commentId, comments.get(0).get("id").asLong());
+        assertEquals("booker", comments.get(0).get("authorName").asText());
+    }
+
+    @Test
+    void queueIsDrainedOnStop() throws Exception {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            ids.add(id(addComment("comment " + i)));
+        }
+
+        commentWriteBehind.stop();
+        try {
+            assertEquals(COMMENTS, ids.size());
+            assertEquals(COMMENTS, jdbcTemplate.queryForObject("select count(*) from comments where item_id = ?",
+                    Integer.class, itemId));
+            assertTrue(ids.contains(jdbcTemplate.queryForObject("select max(id) from comments where item_id = ?",
+                    Long.class, itemId)));
+        } finally {
+            commentWriteBehind.start();
+        }
+    }
+
+    @Test
+    void failedCommentIsKeptAndRetried() throws Exception {
+        jdbcTemplate.update("alter table comments add constraint CK_COMMENTS_TEST check (text <> 'rejected')");
+        final long commentId;
+        try {
+            double retriedBefore = retried();
+            commentId = id(addComment("rejected"));
+            awaitTrue(() -> retried() >= retriedBefore + 2);
+
+            assertEquals(0, storedComments(commentId));
+            JsonNode comments = json(performOk(get("/items/{id}", itemId).header(USER_HEADER, booker)))
+                    .get("comments");
+            assertEquals(commentId, comments.get(0).get("id").asLong());
+        } finally {
+            jdbcTemplate.update("alter table comments drop constraint CK_COMMENTS_TEST");
+        }
+
+        awaitTrue(() -> storedComments(commentId) == 1);
+    }
+
+    @Test
+    void commentWithoutFinishedBookingIsRejectedSynchronously() throws Exception {
+        long stranger = createUser("stranger");
+
+        assertEquals(400, addComment(stranger, itemId, "never booked").getStatus());
+    }
+
+    private double retried() {
+        return meterRegistry.counter("shareit.comments.write-behind.retried").count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Условие не выполнилось за 10 секунд");
+            Thread.sleep(20);
+        }
+    }
+
+    private int storedComments(long commentId) {
+        return jdbcTemplate.queryForObject("select count(*) from comments where id = ?", Integer.class, commentId);
+    }
+
+    private MockHttpServletResponse addComment(String text) throws Exception {
+        MockHttpServletResponse response = addComment(booker, itemId, text);
+        assertEquals(201, response.getStatus());
+        return response;
+    }
+}
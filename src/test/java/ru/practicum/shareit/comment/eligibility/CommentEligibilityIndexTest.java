@@ -0,0 +1,82 @@
+package ru.practicum.shareit.comment.eligibility;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class CommentEligibilityIndexTest extends ApiTestSupport {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CommentEligibilityIndex commentEligibilityIndex;
+
+    private long owner;
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+    }
+
+    @Test
+    void approvedBookingBecomesEligibleWhenItEnds() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime end = start.plusDays(1);
+        long bookingId = createBooking(booker, itemId, start, end);
+        assertEquals(200, decide(owner, bookingId, true).getStatus());
+        assertEquals(400, addComment("too early").getStatus());
+        double probes = probes();
+
+        assertFalse(commentEligibilityIndex.hasFinishedBooking(owner, booker, itemId, end));
+        assertEquals(probes + 1, probes());
+        assertTrue(commentEligibilityIndex.hasFinishedBooking(owner, booker, itemId, end.plusSeconds(1)));
+        assertTrue(commentEligibilityIndex.hasFinishedBooking(owner, booker, itemId, end.plusDays(1)));
+        assertEquals(probes + 1, probes());
+    }
+
+    @Test
+    void bookingMissingFromIndexIsFoundByProbeOnce() throws Exception {
+        insertFinishedBooking(booker, itemId);
+        double probes = probes();
+
+        assertEquals(201, addComment("first").getStatus());
+        assertEquals(201, addComment("second").getStatus());
+        assertEquals(probes + 1, probes());
+    }
+
+    @Test
+    void longHashSetGrowsAndKeepsKeys() {
+        LongHashSet set = new LongHashSet(4);
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(set.add(key << 32 | key * 7));
+        }
+        assertFalse(set.add(5L << 32 | 35));
+        assertEquals(10_000, set.size());
+        assertTrue(set.contains(9_999L << 32 | 69_993));
+        assertFalse(set.contains(10_001L << 32 | 70_007));
+        set.clear();
+        assertFalse(set.contains(5L << 32 | 35));
+    }
+
+    private MockHttpServletResponse addComment(String text) throws Exception {
+        return addComment(booker, itemId, text);
+    }
+
+    private double probes() {
+        return meterRegistry.get("shareit.comments.eligibility").tag("result", "probe").counter().count();
+    }
+}
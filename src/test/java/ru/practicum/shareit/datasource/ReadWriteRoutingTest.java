@@ -0,0 +1,138 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "shareit.datasource.routing.lag-query=select lag_seconds from replica_lag",
+        "shareit.datasource.routing.max-lag=1s",
+        "shareit.datasource.routing.lag-check-interval=1h",
+        "shareit.datasource.routing.stickiness=1m",
+        "shareit.matching.enabled=false"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadWriteRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void createReplicaSchema() {
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("schema-h2.sql"))
+                .execute(replicaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table replica_lag (lag_seconds double precision)");
+        replica.update("insert into replica_lag values (0)");
+        primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    }
+
+    @BeforeEach
+    void resetReplica() {
+        setReplicaLag(0);
+        clearCaches();
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByReplica() throws Exception {
+        long userId = insertUser(replica, 9_001, "replica-only");
+
+        mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("replica-only"));
+    }
+
+    @Test
+    void writesGoToPrimary() throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"writer\",\"email\":\"writer@shareit.ru\"}"))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, countUsers(primary, "writer@shareit.ru"));
+        assertEquals(0, countUsers(replica, "writer@shareit.ru"));
+    }
+
+    @Test
+    void lagFallsBackToPrimary() throws Exception {
+        long userId = insertUser(primary, 9_002, "primary-only");
+        mockMvc.perform(get("/users/{id}", userId)).andExpect(status().isNotFound());
+
+        setReplicaLag(30);
+        mockMvc.perform(get("/users/{id}", userId)).andExpect(status().isOk());
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() throws Exception {
+        long writer = insertUser(primary, 9_003, "sticky-writer");
+        insertUser(replica, writer, "sticky-writer");
+        long reader = insertUser(primary, 9_004, "other-reader");
+        insertUser(replica, reader, "other-reader");
+
+        String body = mockMvc.perform(post("/items").header(USER_HEADER, writer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long itemId = Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        clearCaches();
+
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_HEADER, writer)).andExpect(status().isOk());
+        clearCaches();
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_HEADER, reader)).andExpect(status().isNotFound());
+    }
+
+    private void clearCaches() {
+        userIdentityCache.invalidateAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private void setReplicaLag(double seconds) {
+        replica.update("update replica_lag set lag_seconds = ?", seconds);
+        lagMonitor.refresh();
+    }
+
+    private static long insertUser(JdbcTemplate jdbcTemplate, long id, String name) {
+        jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)", id, name, name + "@shareit.ru");
+        return id;
+    }
+
+    private static int countUsers(JdbcTemplate jdbcTemplate, String email) {
+        return jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+@SpringBootTest(properties = {
+        "shareit.matching.enabled=false",
+        "shareit.etag.time-bucket=1h"
+})
+class ConditionalRequestTest extends ApiTestSupport {
+    @Autowired
+    private EtagProperties etagProperties;
+    private long owner;
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        createBooking(booker, itemId, start, start.plusDays(1));
+    }
+
+    @Test
+    void unchangedViewIsNotModified() throws Exception {
+        String itemsTag = etag(ownerItems());
+        String bookingsTag = etag(ownerBookings("ALL"));
+
+        assertEquals(304, perform(ownerItems().header(HttpHeaders.IF_NONE_MATCH, itemsTag)).getStatus());
+        assertEquals(304, perform(ownerBookings("ALL").header(HttpHeaders.IF_NONE_MATCH, bookingsTag)).getStatus());
+    }
+
+    @Test
+    void changedViewIsServedAgain() throws Exception {
+        String itemsTag = etag(ownerItems());
+        String bookingsTag = etag(ownerBookings("ALL"));
+
+        performOk(patch("/items/{id}", itemId).header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"cordless drill\"}"));
+
+        MockHttpServletResponse items = perform(ownerItems().header(HttpHeaders.IF_NONE_MATCH, itemsTag));
+        assertEquals(200, items.getStatus());
+        assertNotEquals(itemsTag, items.getHeader(HttpHeaders.ETAG));
+        assertEquals(200, perform(ownerBookings("ALL").header(HttpHeaders.IF_NONE_MATCH, bookingsTag)).getStatus());
+    }
+
+    @Test
+    void writeOnAnotherInstanceChangesTag() throws Exception {
+        String itemsTag = etag(ownerItems());
+        String itemTag = etag(get("/items/{id}", itemId).header(USER_HEADER, booker));
+        assertFalse(itemsTag.startsWith("W/"));
+
+        // второй экземпляр приложения с той же базой
+        new ResourceVersions(etagProperties, jdbcTemplate).itemChanged(itemId, owner);
+
+        assertEquals(200, perform(ownerItems().header(HttpHeaders.IF_NONE_MATCH, itemsTag)).getStatus());
+        assertEquals(200, perform(get("/items/{id}", itemId).header(USER_HEADER, booker)
+                .header(HttpHeaders.IF_NONE_MATCH, itemTag)).getStatus());
+    }
+
+    @Test
+    void endpointsAndStatesHaveDistinctTags() throws Exception {
+        String itemsTag = etag(ownerItems());
+        String allTag = etag(ownerBookings("ALL"));
+        String waitingTag = etag(ownerBookings("WAITING"));
+
+        assertNotEquals(itemsTag, allTag);
+        assertNotEquals(allTag, waitingTag);
+        assertEquals(200, perform(ownerBookings("ALL").header(HttpHeaders.IF_NONE_MATCH, itemsTag)).getStatus());
+        assertEquals(200, perform(ownerBookings("REJECTED").header(HttpHeaders.IF_NONE_MATCH, allTag)).getStatus());
+    }
+
+    private MockHttpServletRequestBuilder ownerItems() {
+        return get("/items").header(USER_HEADER, owner);
+    }
+
+    private MockHttpServletRequestBuilder ownerBookings(String state) {
+        return get("/bookings/owner").header(USER_HEADER, owner).param("state", state);
+    }
+
+    private String etag(MockHttpServletRequestBuilder request) throws Exception {
+        String tag = performOk(request).getHeader(HttpHeaders.ETAG);
+        assertNotNull(tag);
+        return tag;
+    }
+}
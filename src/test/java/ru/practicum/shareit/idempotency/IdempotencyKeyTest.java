@@ -0,0 +1,190 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class IdempotencyKeyTest extends ApiTestSupport {
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        long owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+    }
+
+    @Test
+    void retriedBookingReplaysOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = bookingBody(1);
+
+        MockHttpServletResponse first = createBooking(key, body);
+        MockHttpServletResponse retry = createBooking(key, body);
+        // новый экземпляр хранилища без кэша в памяти читает ответ только из таблицы
+        MockHttpServletResponse retryFromTable = filter(new IdempotencyStore(jdbcTemplate, idempotencyProperties),
+                key, body, (request, response) -> fail("Повтор не должен доходить до контроллера"));
+
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        for (MockHttpServletResponse replayed : List.of(retry, retryFromTable)) {
+            assertEquals(201, replayed.getStatus());
+            assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(first.getContentAsString(), replayed.getContentAsString());
+        }
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(201, createBooking(key, bookingBody(1)).getStatus());
+        assertEquals(422, createBooking(key, bookingBody(2)).getStatus());
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForFirstExecution() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = bookingBody(1);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return createBooking(key, body);
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get(30, TimeUnit.SECONDS);
+            assertEquals(201, response.getStatus());
+            ids.add(id(response));
+        }
+        executor.shutdown();
+
+        assertEquals(1, ids.stream().distinct().count());
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void cachedBodyIsDeliveredToReadListener() throws Exception {
+        String body = bookingBody(1);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicInteger allDataRead = new AtomicInteger();
+
+        MockHttpServletResponse response = filter(idempotencyStore, UUID.randomUUID().toString(), body,
+                (request, ignored) -> {
+                    ServletInputStream input = request.getInputStream();
+                    input.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            while (input.isReady() && !input.isFinished()) {
+                                received.write(input.read());
+                            }
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                            allDataRead.incrementAndGet();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            fail(t);
+                        }
+                    });
+                    ((HttpServletResponse) ignored).setStatus(201);
+                });
+
+        assertEquals(201, response.getStatus());
+        assertEquals(body, received.toString(StandardCharsets.UTF_8));
+        assertEquals(1, allDataRead.get());
+    }
+
+    @Test
+    void failedSaveReleasesClaim() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = bookingBody(1);
+        AtomicInteger executions = new AtomicInteger();
+        IdempotencyStore failingStore = new IdempotencyStore(jdbcTemplate, idempotencyProperties) {
+            @Override
+            public void complete(Key key, StoredResponse response) {
+                throw new IllegalStateException("база недоступна");
+            }
+        };
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        assertEquals(201, filter(failingStore, key, body, chain).getStatus());
+        assertEquals(201, filter(failingStore, key, body, chain).getStatus());
+        assertEquals(2, executions.get());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from idempotency_keys " +
+                "where user_id = ? and idempotency_key = ?", Integer.class, booker, key));
+    }
+
+    private MockHttpServletResponse filter(IdempotencyStore store, String key, String body, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+        request.addHeader(USER_HEADER, booker);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new IdempotencyFilter(store, idempotencyProperties, objectMapper).doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse createBooking(String key, String body) throws Exception {
+        return mockMvc.perform(post("/bookings").header(USER_HEADER, booker)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+    }
+
+    private String bookingBody(int days) {
+        LocalDateTime start = LocalDateTime.now().plusDays(days).withNano(0);
+        return bookingBody(itemId, start, start.plusDays(1));
+    }
+
+    private int countBookings() {
+        return jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ?", Integer.class, itemId);
+    }
+}
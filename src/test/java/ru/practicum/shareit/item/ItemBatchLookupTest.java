@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class ItemBatchLookupTest extends ApiTestSupport {
+
+    @Test
+    void foundAndMissingItemsAreReportedInRequestOrder() throws Exception {
+        long owner = createUser("owner");
+        long first = createItem(owner, "drill");
+        long second = createItem(owner, "saw");
+        long missing = second + 1_000_000;
+
+        JsonNode batch = json(performOk(get("/items").header(USER_HEADER, owner)
+                .param("ids", second + "," + missing + "," + first)));
+
+        assertEquals(2, batch.get("items").size());
+        assertEquals(second, batch.get("items").get(0).get("id").asLong());
+        assertEquals(first, batch.get("items").get(1).get("id").asLong());
+        assertEquals(missing, batch.get("missingIds").get(0).asLong());
+    }
+
+    @Test
+    void emptyOrNonPositiveIdsAreRejected() throws Exception {
+        long owner = createUser("owner");
+        long itemId = createItem(owner, "drill");
+
+        assertEquals(400, perform(get("/items").header(USER_HEADER, owner).param("ids", itemId + ",,1"))
+                .getStatus());
+        assertEquals(400, perform(get("/items").header(USER_HEADER, owner).param("ids", itemId + ",0"))
+                .getStatus());
+        assertEquals(400, perform(get("/users").param("ids", owner + ",,1")).getStatus());
+        assertEquals(400, perform(get("/users").param("ids", "-1")).getStatus());
+    }
+}
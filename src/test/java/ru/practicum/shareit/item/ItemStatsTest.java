@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class ItemStatsTest extends ApiTestSupport {
+    private static final String MONDAY = "2030-01-07T00:00:00";
+
+    private long owner;
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "drill");
+    }
+
+    @Test
+    void approvedHoursAreSplitAcrossWeeks() throws Exception {
+        decide(owner, book("2030-01-12T12:00:00", "2030-01-15T12:00:00"), true);
+        decide(owner, book("2030-01-16T00:00:00", "2030-01-17T00:00:00"), false);
+        book("2030-01-18T00:00:00", "2030-01-19T00:00:00");
+        decide(owner, book("2030-01-20T12:00:00", "2030-01-22T00:00:00"), true);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/items/stats").header(USER_HEADER, owner)
+                        .param("from", MONDAY)
+                        .param("to", "2030-01-21T00:00:00")
+                        .param("bucket", "week"))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        JsonNode item = objectMapper.readTree(response.getContentAsString()).get("items").get(0);
+        assertEquals(itemId, item.get("itemId").asLong());
+        assertEquals(2, item.get("approvedBookings").asInt());
+        assertEquals(1, item.get("rejectedBookings").asInt());
+        assertEquals(2.0 / 3, item.get("approvalRatio").asDouble(), 1e-9);
+        assertEquals(84.0, item.get("bookedHours").asDouble(), 1e-9);
+
+        JsonNode buckets = item.get("buckets");
+        assertEquals(2, buckets.size());
+        assertEquals(MONDAY, buckets.get(0).get("start").asText());
+        assertEquals(36.0, buckets.get(0).get("bookedHours").asDouble(), 1e-9);
+        assertEquals(48.0, buckets.get(1).get("bookedHours").asDouble(), 1e-9);
+        assertEquals(48.0 / 168, buckets.get(1).get("occupancy").asDouble(), 1e-9);
+    }
+
+    @Test
+    void invalidPeriodIsRejected() throws Exception {
+        assertEquals(400, stats(MONDAY, MONDAY, "week"));
+        assertEquals(400, stats(MONDAY, "2030-01-21T00:00:00", "fortnight"));
+        assertEquals(400, stats(MONDAY, "2040-01-07T00:00:00", "day"));
+        assertTrue(stats(MONDAY, "2040-01-07T00:00:00", "month") < 300);
+    }
+
+    private int stats(String from, String to, String bucket) throws Exception {
+        return mockMvc.perform(get("/items/stats").header(USER_HEADER, owner)
+                        .param("from", from)
+                        .param("to", to)
+                        .param("bucket", bucket))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private long book(String start, String end) throws Exception {
+        return createBooking(booker, itemId, LocalDateTime.parse(start), LocalDateTime.parse(end));
+    }
+}
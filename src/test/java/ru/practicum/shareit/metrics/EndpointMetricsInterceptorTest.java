@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.user.UserController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EndpointMetricsInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointMetricsInterceptor interceptor =
+            new EndpointMetricsInterceptor(meterRegistry, new MetricsProperties());
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void clearThread() {
+        RequestQueryStats.stop();
+    }
+
+    @Test
+    void asyncRequestReleasesThreadAndIsRecordedOnDispatch() throws Exception {
+        HandlerMethod handler = handler("streamAllUsers", Long.class);
+
+        interceptor.preHandle(request, response, handler);
+        RequestQueryStats.statementPrepared();
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        assertNull(RequestQueryStats.stop(), "Статистика осталась в потоке контейнера");
+        assertEquals(0, meterRegistry.find("shareit.endpoint.requests").timers().size());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, handler);
+        RequestQueryStats.statementPrepared();
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertNull(RequestQueryStats.stop());
+        assertEquals(1, meterRegistry.get("shareit.endpoint.requests").tag("method", "streamAllUsers").timer()
+                .count());
+        assertEquals(2.0, meterRegistry.get("shareit.endpoint.sql.statements").tag("method", "streamAllUsers")
+                .summary().totalAmount());
+    }
+
+    private static HandlerMethod handler(String method, Class<?>... parameterTypes) throws Exception {
+        return new HandlerMethod(new Object(), UserController.class.getMethod(method, parameterTypes));
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.matching.enabled=false",
+        "shareit.outbox.poll-interval=1h",
+        "shareit.outbox.file-sink.path=" + OutboxRelayTest.SINK_PATH})
+class OutboxRelayTest extends ApiTestSupport {
+    static final String SINK_PATH = "target/outbox-relay-test/events.ndjson";
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private OutboxProperties outboxProperties;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long owner;
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.deleteIfExists(Path.of(SINK_PATH));
+        owner = createUser("owner");
+        booker = createUser("booker");
+        itemId = createItem(owner, "saw");
+    }
+
+    @Test
+    void bookingEventsAreDeliveredInOrderAndRemovedFromOutbox() throws Exception {
+        long bookingId = createBooking();
+        assertEquals(200, decide(owner, bookingId, true).getStatus());
+
+        outboxRelay.relayPending();
+
+        assertEquals(List.of("BOOKING_CREATED", "BOOKING_APPROVED"), deliveredTypes(bookingId));
+        assertEquals(0, countOutbox(bookingId));
+    }
+
+    @Test
+    void failedDeliveryBacksOffAndKeepsEvent() throws Exception {
+        long bookingId = createBooking();
+        AtomicInteger calls = new AtomicInteger();
+        OutboxSink failingSink = new OutboxSink() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void deliver(List<OutboxMessage> messages) throws IOException {
+                calls.incrementAndGet();
+                throw new IOException("получатель недоступен");
+            }
+        };
+        OutboxRelay failingRelay = new OutboxRelay(outboxRepository, List.of(failingSink), outboxProperties,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+
+        failingRelay.relayPending();
+        failingRelay.relayPending();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, jdbcTemplate.queryForObject("select attempts from outbox where aggregate_id = ?",
+                Integer.class, bookingId));
+        assertTrue(jdbcTemplate.queryForObject("select next_attempt_at from outbox where aggregate_id = ?",
+                LocalDateTime.class, bookingId).isAfter(LocalDateTime.now()));
+
+        jdbcTemplate.update("update outbox set next_attempt_at = ? where aggregate_id = ?",
+                LocalDateTime.now().minusSeconds(1), bookingId);
+        outboxRelay.relayPending();
+
+        assertEquals(List.of("BOOKING_CREATED"), deliveredTypes(bookingId));
+        assertEquals(0, countOutbox(bookingId));
+    }
+
+    @Test
+    void batchIsDeliveredOutsideTransactionUnderLease() throws Exception {
+        long bookingId = createBooking();
+        List<Boolean> transactionActive = new ArrayList<>();
+        List<LocalDateTime> leasedUntil = new ArrayList<>();
+        OutboxRelay relay = relay(messages -> {
+            transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+            leasedUntil.add(nextAttemptAt(bookingId));
+        });
+
+        relay.relayPending();
+
+        assertEquals(List.of(false), transactionActive);
+        assertTrue(leasedUntil.get(0).isAfter(LocalDateTime.now()));
+        assertEquals(0, countOutbox(bookingId));
+    }
+
+    @Test
+    void eventsOfCrashedDeliveryReturnAfterLease() throws Exception {
+        long bookingId = createBooking();
+        OutboxRelay crashing = relay(messages -> {
+            // не Exception: релей не успевает отметить неудачу, как при падении процесса
+            throw new Error("экземпляр упал во время доставки");
+        });
+
+        assertThrows(Error.class, crashing::relayPending);
+        outboxRelay.relayPending();
+
+        assertEquals(1, countOutbox(bookingId));
+        assertEquals(0, jdbcTemplate.queryForObject("select attempts from outbox where aggregate_id = ?",
+                Integer.class, bookingId));
+        assertTrue(nextAttemptAt(bookingId).isAfter(LocalDateTime.now()));
+
+        jdbcTemplate.update("update outbox set next_attempt_at = ? where aggregate_id = ?",
+                LocalDateTime.now().minusSeconds(1), bookingId);
+        outboxRelay.relayPending();
+
+        assertEquals(List.of("BOOKING_CREATED"), deliveredTypes(bookingId));
+        assertEquals(0, countOutbox(bookingId));
+    }
+
+    private OutboxRelay relay(Delivery delivery) {
+        OutboxSink sink = new OutboxSink() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void deliver(List<OutboxMessage> messages) {
+                delivery.deliver(messages);
+            }
+        };
+        return new OutboxRelay(outboxRepository, List.of(sink), outboxProperties,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+    }
+
+    private LocalDateTime nextAttemptAt(long bookingId) {
+        return jdbcTemplate.queryForObject("select next_attempt_at from outbox where aggregate_id = ?",
+                LocalDateTime.class, bookingId);
+    }
+
+    private List<String> deliveredTypes(long bookingId) throws IOException {
+        List<String> types = new ArrayList<>();
+        for (String line : Files.readAllLines(Path.of(SINK_PATH))) {
+            JsonNode message = objectMapper.readTree(line);
+            if (message.get("aggregateId").asLong() == bookingId) {
+                assertEquals(bookingId, message.get("payload").get("bookingId").asLong());
+                types.add(message.get("type").asText());
+            }
+        }
+        return types;
+    }
+
+    private int countOutbox(long bookingId) {
+        return jdbcTemplate.queryForObject("select count(*) from outbox where aggregate_id = ?", Integer.class,
+                bookingId);
+    }
+
+    private long createBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        return createBooking(booker, itemId, start, start.plusDays(1));
+    }
+
+    private interface Delivery {
+        void deliver(List<OutboxMessage> messages);
+    }
+}
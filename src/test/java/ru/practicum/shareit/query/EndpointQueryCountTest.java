@@ -0,0 +1,250 @@
+package ru.practicum.shareit.query;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.cache.CacheRegions;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserIdentityCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count;MODE=PostgreSQL",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.matching.enabled=false"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+    private Fixture small;
+    private Fixture large;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        small = seed("small", 2);
+        large = seed("large", 25);
+    }
+
+    @Test
+    void userEndpoints() {
+        assertQueries(1, f -> get("/users"));
+        assertQueries(1, f -> get("/users/{id}", f.owner));
+        assertQueries(1, f -> get("/users").param("afterId", "0").param("size", "1000"));
+        assertQueries(1, f -> get("/users").param("ids", ids(List.of(f.owner, f.booker, f.spare))));
+        assertQueries(1, f -> post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"new\",\"email\":\"new-" + f.name + "-" + System.nanoTime() + "@shareit.ru\"}"));
+        assertQueries(3, f -> patch("/users/{id}", f.spare).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"renamed " + System.nanoTime() + "\"}"));
+    }
+
+    @Test
+    void userDeletion() {
+        assertQueries(2, f -> delete("/users/{id}", userRepository.save(user(f.name + "-delete-" + System.nanoTime()))
+                .getId()));
+    }
+
+    @Test
+    void itemReadEndpoints() {
+        assertQueries(5, f -> get("/items").header(USER_HEADER, f.owner));
+        assertQueries(4, f -> get("/items/{id}", f.itemIds.get(0)).header(USER_HEADER, f.owner));
+        assertQueries(2, f -> get("/items/{id}", f.itemIds.get(0)).header(USER_HEADER, f.booker));
+        assertQueries(4, f -> get("/items").param("ids", ids(f.itemIds)).header(USER_HEADER, f.owner));
+        assertQueries(1, f -> get("/items/search").param("text", f.name));
+    }
+
+    @Test
+    void itemWriteEndpoints() {
+        assertQueries(2, f -> post("/items").header(USER_HEADER, f.owner).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"extra " + f.name + "\",\"description\":\"extra\",\"available\":true}"));
+        assertQueries(4, f -> patch("/items/{id}", f.itemIds.get(0)).header(USER_HEADER, f.owner)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"updated " + f.name + "\"}"));
+        assertQueries(3, f -> delete("/items/{id}", itemRepository.save(item(f.name + " disposable",
+                userRepository.getReferenceById(f.owner))).getId()).header(USER_HEADER, f.owner));
+        assertQueries(5, f -> post("/items/{id}/comment", f.itemIds.get(0)).header(USER_HEADER, f.booker)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"nice\"}"));
+    }
+
+    @Test
+    void knownUserIsNotQueriedAgainOnWrites() {
+        for (Fixture fixture : List.of(small, large)) {
+            RequestBuilder addItem = post("/items").header(USER_HEADER, fixture.owner)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"cached " + fixture.name + "\",\"description\":\"cached\","
+                            + "\"available\":true}");
+            long cold = countStatements(addItem);
+            statistics.clear();
+            performOk(addItem);
+            assertEquals(cold - 1, statistics.getPrepareStatementCount(), "Известный пользователь проверяется в базе");
+        }
+    }
+
+    @Test
+    void bookingWriteEndpoints() {
+        assertQueries(7, f -> post("/bookings").header(USER_HEADER, f.booker).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\":" + f.itemIds.get(0) + ",\"start\":\"" + LocalDateTime.now().plusDays(400)
+                        + "\",\"end\":\"" + LocalDateTime.now().plusDays(401) + "\"}"));
+        assertQueries(5, f -> patch("/bookings/{id}", saveBooking(booking(f, 0, BookingStatus.WAITING,
+                LocalDateTime.now().plusDays(500)))).param("approved", "true").header(USER_HEADER, f.owner));
+        assertQueries(1, f -> get("/bookings/{id}", f.waitingBooking).header(USER_HEADER, f.booker));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookingListEndpoints(BookingState state) {
+        assertQueries(2, f -> get("/bookings").param("state", state.name()).header(USER_HEADER, f.booker));
+        assertQueries(2, f -> get("/bookings/owner").param("state", state.name()).header(USER_HEADER, f.owner));
+    }
+
+    private void assertQueries(long expected, Function<Fixture, RequestBuilder> request) {
+        long smallCount = countStatements(request.apply(small));
+        long largeCount = countStatements(request.apply(large));
+        assertEquals(smallCount, largeCount, "Количество SQL-запросов зависит от объёма данных");
+        assertEquals(expected, largeCount, "Неожиданное количество SQL-запросов");
+    }
+
+    @Test
+    void secondLevelCacheServesRepeatedReads() {
+        for (Fixture fixture : List.of(small, large)) {
+            countStatements(get("/users/{id}", fixture.owner));
+            statistics.clear();
+            performOk(get("/users/{id}", fixture.owner));
+            assertEquals(0, statistics.getPrepareStatementCount(), "Повторное чтение обращается к базе данных");
+
+            countStatements(get("/items/{id}", fixture.itemIds.get(0)).header(USER_HEADER, fixture.booker));
+            statistics.clear();
+            performOk(get("/items/{id}", fixture.itemIds.get(0)).header(USER_HEADER, fixture.booker));
+            assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+            assertTrue(statistics.getCacheRegionStatistics(CacheRegions.ITEMS).getHitCount() > 0);
+        }
+    }
+
+    private long countStatements(RequestBuilder request) {
+        userIdentityCache.invalidateAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+        performOk(request);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void performOk(RequestBuilder request) {
+        try {
+            int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+            assertTrue(status >= 200 && status < 300, "Неуспешный ответ: " + status);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Fixture seed(String name, int items) {
+        User owner = userRepository.save(user(name + "-owner"));
+        User booker = userRepository.save(user(name + "-booker"));
+        User spare = userRepository.save(user(name + "-spare"));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Item> savedItems = itemRepository.saveAll(IntStream.range(0, items)
+                .mapToObj(i -> item(name + " item " + i, owner))
+                .toList());
+        Fixture fixture = new Fixture(name, owner.getId(), booker.getId(), spare.getId(),
+                savedItems.stream().map(Item::getId).toList(), 0L);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = savedItems.get(i);
+            bookings.add(booking(fixture, i, BookingStatus.APPROVED, now.minusDays(10).plusMinutes(i)));
+            bookings.add(booking(fixture, i, BookingStatus.APPROVED, now.minusHours(1).plusMinutes(i)));
+            bookings.add(booking(fixture, i, BookingStatus.APPROVED, now.plusDays(10).plusMinutes(i)));
+            bookings.add(booking(fixture, i, BookingStatus.WAITING, now.plusDays(20).plusMinutes(i)));
+            bookings.add(booking(fixture, i, BookingStatus.REJECTED, now.plusDays(30).plusMinutes(i)));
+            comments.add(Comment.builder().text("comment " + i).item(item).author(booker).created(now).build());
+        }
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        bookingViewRepository.insertMissing();
+        commentRepository.saveAll(comments);
+        return new Fixture(name, fixture.owner, fixture.booker, fixture.spare, fixture.itemIds,
+                savedBookings.get(3).getId());
+    }
+
+    private Long saveBooking(Booking booking) {
+        Long id = bookingRepository.save(booking).getId();
+        bookingViewRepository.insertMissing();
+        return id;
+    }
+
+    private Booking booking(Fixture fixture, int itemIndex, BookingStatus status, LocalDateTime start) {
+        return Booking.builder()
+                .start(start)
+                .end(start.plusHours(2))
+                .item(itemRepository.getReferenceById(fixture.itemIds.get(itemIndex)))
+                .booker(userRepository.getReferenceById(fixture.booker))
+                .status(status)
+                .build();
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(name + "@shareit.ru").build();
+    }
+
+    private static Item item(String name, User owner) {
+        return Item.builder().name(name).description(name).available(true).owner(owner).build();
+    }
+
+    private static String ids(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private record Fixture(String name, Long owner, Long booker, Long spare, List<Long> itemIds,
+                           Long waitingBooking) {
+    }
+}
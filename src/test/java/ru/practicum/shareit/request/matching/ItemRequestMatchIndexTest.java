@@ -0,0 +1,60 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.matching.ItemRequestMatchIndex.Candidate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemRequestMatchIndexTest {
+    private static final long OWNER = 1L;
+    private static final long REQUESTOR = 2L;
+
+    private final ItemRequestMatchIndex index = new ItemRequestMatchIndex(2, 2);
+
+    @Test
+    void oldestEntriesAreEvictedWhenIndexIsFull() {
+        index.addRequest(10L, REQUESTOR, Set.of("drill"));
+        index.addRequest(11L, REQUESTOR, Set.of("drill"));
+        index.addRequest(12L, REQUESTOR, Set.of("drill"));
+        index.addItem(20L, OWNER, Set.of("saw"));
+        index.addItem(21L, OWNER, Set.of("saw"));
+
+        assertEquals(List.of(new Candidate(11L, 22L, OWNER), new Candidate(12L, 22L, OWNER)),
+                sorted(index.addItem(22L, OWNER, Set.of("drill"))));
+        assertEquals(2, index.requestCount());
+        assertEquals(2, index.itemCount());
+        assertEquals(List.of(new Candidate(13L, 22L, OWNER)),
+                index.addRequest(13L, REQUESTOR, Set.of("drill", "saw")).stream()
+                        .filter(candidate -> candidate.itemId() == 22L)
+                        .toList());
+    }
+
+    @Test
+    void itemBecomingAvailableIsMatched() {
+        index.addRequest(10L, REQUESTOR, Set.of("drill"));
+
+        assertEquals(List.of(), index.reindexItem(20L, OWNER, Set.of("drill"), false));
+        assertEquals(List.of(new Candidate(10L, 20L, OWNER)),
+                index.reindexItem(20L, OWNER, Set.of("drill"), true));
+    }
+
+    @Test
+    void reindexReturnsOnlyRequestsReachedByNewTokens() {
+        index.addRequest(10L, REQUESTOR, Set.of("drill"));
+        index.addRequest(11L, REQUESTOR, Set.of("hammer"));
+        index.addItem(20L, OWNER, Set.of("drill"));
+
+        assertEquals(List.of(new Candidate(11L, 20L, OWNER)),
+                index.reindexItem(20L, OWNER, Set.of("drill", "hammer"), true));
+        assertEquals(List.of(), index.reindexItem(20L, OWNER, Set.of("drill", "hammer"), true));
+    }
+
+    private static List<Candidate> sorted(List<Candidate> candidates) {
+        return candidates.stream()
+                .sorted((a, b) -> Long.compare(a.requestId(), b.requestId()))
+                .toList();
+    }
+}
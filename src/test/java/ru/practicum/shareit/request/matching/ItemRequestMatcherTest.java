@@ -0,0 +1,177 @@
+package ru.practicum.shareit.request.matching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "shareit.matching.pool-size=1",
+        "shareit.matching.queue-capacity=4"
+})
+class ItemRequestMatcherTest extends ApiTestSupport {
+
+    @Autowired
+    private ThreadPoolTaskExecutor matchingExecutor;
+    @Autowired
+    private ItemRequestMatchRepository itemRequestMatchRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void itemBecomingAvailableIsMatchedWithOpenRequests() throws Exception {
+        String word = uniqueWord();
+        long requestor = createUser("requestor");
+        long owner = createUser("owner");
+        long requestId = createRequest(requestor, "need a " + word);
+        long itemId = id(performOk(post("/items").header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + word + "\",\"description\":\"" + word + "\",\"available\":false}")));
+        drain();
+        assertEquals(List.of(), matchedItems(owner));
+
+        performOk(patch("/items/{id}", itemId).header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"available\":true}"));
+        drain();
+
+        JsonNode matches = json(performOk(get("/requests/matches").header(USER_HEADER, owner)));
+        assertEquals(1, matches.size());
+        assertEquals(requestId, matches.get(0).get("requestId").asLong());
+        assertEquals(itemId, matches.get(0).get("itemId").asLong());
+    }
+
+    @Test
+    void reindexingUnchangedItemDoesNotDuplicateMatches() throws Exception {
+        String word = uniqueWord();
+        long requestor = createUser("requestor");
+        long owner = createUser("owner");
+        long itemId = createItem(owner, word);
+        createRequest(requestor, word);
+        drain();
+
+        performOk(patch("/items/{id}", itemId).header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"" + word + " second edition\"}"));
+        drain();
+
+        assertEquals(List.of(itemId), matchedItems(owner));
+    }
+
+    @Test
+    void alreadySavedPairDoesNotDropOtherCandidates() throws Exception {
+        String word = uniqueWord();
+        long requestor = createUser("requestor");
+        long owner = createUser("owner");
+        long firstRequestId = createRequest(requestor, word);
+        long secondRequestId = createRequest(requestor, word);
+        long itemId = id(performOk(post("/items").header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + word + "\",\"description\":\"" + word + "\",\"available\":false}")));
+        drain();
+        // пара уже сохранена, например параллельной задачей
+        itemRequestMatchRepository.save(ItemRequestMatch.builder()
+                .request(itemRequestRepository.getReferenceById(firstRequestId))
+                .item(itemRepository.getReferenceById(itemId))
+                .ownerId(owner)
+                .matched(LocalDateTime.now())
+                .build());
+
+        performOk(patch("/items/{id}", itemId).header(USER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"available\":true}"));
+        drain();
+
+        List<Long> requestIds = new ArrayList<>();
+        json(performOk(get("/requests/matches").header(USER_HEADER, owner)))
+                .forEach(match -> requestIds.add(match.get("requestId").asLong()));
+        requestIds.sort(null);
+        assertEquals(List.of(firstRequestId, secondRequestId), requestIds);
+    }
+
+    @Test
+    void candidatesRejectedByExecutorAreSavedSynchronously() throws Exception {
+        String word = uniqueWord();
+        long requestor = createUser("requestor");
+        long owner = createUser("owner");
+        long itemId = createItem(owner, word);
+        drain();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        matchingExecutor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // единственный поток занят, очередь заполняем пустыми задачами до отказа
+        List<Future<?>> queued = new ArrayList<>();
+        try {
+            while (true) {
+                queued.add(matchingExecutor.submit(() -> {
+                }));
+            }
+        } catch (TaskRejectedException e) {
+            assertEquals(4, queued.size());
+        }
+        try {
+            createRequest(requestor, word);
+
+            assertEquals(List.of(itemId), matchedItems(owner));
+        } finally {
+            release.countDown();
+        }
+        for (Future<?> task : queued) {
+            task.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private long createRequest(long requestorId, String description) throws Exception {
+        return id(performOk(post("/requests").header(USER_HEADER, requestorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"" + description + "\"}")));
+    }
+
+    private List<Long> matchedItems(long ownerId) throws Exception {
+        List<Long> itemIds = new ArrayList<>();
+        json(performOk(get("/requests/matches").header(USER_HEADER, ownerId)))
+                .forEach(match -> itemIds.add(match.get("itemId").asLong()));
+        return itemIds;
+    }
+
+    // задачи выполняются одним потоком по порядку: завершение пустой задачи означает, что очередь разобрана
+    private void drain() throws Exception {
+        assertTrue(matchingExecutor.submit(() -> true).get(5, TimeUnit.SECONDS));
+    }
+
+    private static String uniqueWord() {
+        return "gadget" + System.nanoTime();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.startup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaVersionInitializerTest {
+    private final DataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:schema-version;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void dropSchemaVersion() {
+        jdbcTemplate.update("drop table if exists schema_version");
+    }
+
+    @Test
+    void schemaScriptsRunOnlyWhenChecksumChanges() {
+        assertTrue(initializer().initializeDatabase());
+        assertFalse(initializer().initializeDatabase());
+
+        jdbcTemplate.update("update schema_version set checksum = 'outdated'");
+
+        assertTrue(initializer().initializeDatabase());
+        assertFalse(initializer().initializeDatabase());
+    }
+
+    @Test
+    void checksumDependsOnContentNotLocation() {
+        initializer().initializeDatabase();
+
+        assertFalse(initializer("file:target/classes/schema.sql").initializeDatabase());
+    }
+
+    @Test
+    void recordingSameVersionTwiceKeepsOneRow() {
+        initializer().initializeDatabase();
+        String checksum = jdbcTemplate.queryForObject("select checksum from schema_version", String.class);
+
+        initializer().recordChecksum(checksum);
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from schema_version", Integer.class));
+    }
+
+    private SchemaVersionInitializer initializer() {
+        return initializer("classpath:schema.sql");
+    }
+
+    private SchemaVersionInitializer initializer(String schemaLocation) {
+        SqlInitializationProperties properties = new SqlInitializationProperties();
+        properties.setMode(DatabaseInitializationMode.ALWAYS);
+        properties.setSchemaLocations(List.of(schemaLocation, "optional:classpath:schema-h2.sql"));
+        SchemaVersionInitializer initializer = new SchemaVersionInitializer(dataSource, properties);
+        initializer.setResourceLoader(new DefaultResourceLoader());
+        return initializer;
+    }
+}
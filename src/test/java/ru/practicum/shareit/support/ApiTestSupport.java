@@ -0,0 +1,99 @@
+package ru.practicum.shareit.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// общие запросы интеграционных тестов: пользователи, вещи и бронирования создаются через API
+@AutoConfigureMockMvc
+public abstract class ApiTestSupport {
+    protected static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected ObjectMapper objectMapper;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    protected MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    protected MockHttpServletResponse performOk(RequestBuilder request) throws Exception {
+        MockHttpServletResponse response = perform(request);
+        assertEquals(2, response.getStatus() / 100, response.getContentAsString());
+        return response;
+    }
+
+    protected long createUser(String name) throws Exception {
+        return id(performOk(post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"email\":\"" + UUID.randomUUID() + "@shareit.ru\"}")));
+    }
+
+    protected long createItem(long ownerId, String name) throws Exception {
+        return id(performOk(post("/items").header(USER_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"description\":\"" + name + "\",\"available\":true}")));
+    }
+
+    protected MockHttpServletRequestBuilder bookingRequest(long bookerId, long itemId, LocalDateTime start,
+                                                           LocalDateTime end) {
+        return post("/bookings").header(USER_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookingBody(itemId, start, end));
+    }
+
+    protected long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end)
+            throws Exception {
+        return id(performOk(bookingRequest(bookerId, itemId, start, end)));
+    }
+
+    protected MockHttpServletResponse decide(long ownerId, long bookingId, boolean approved) throws Exception {
+        return perform(patch("/bookings/{id}", bookingId).header(USER_HEADER, ownerId)
+                .param("approved", String.valueOf(approved)));
+    }
+
+    protected MockHttpServletResponse addComment(long authorId, long itemId, String text) throws Exception {
+        return perform(post("/items/{id}/comment", itemId).header(USER_HEADER, authorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"" + text + "\"}"));
+    }
+
+    // завершённое подтверждённое бронирование в обход API: через API нельзя создать бронирование в прошлом
+    protected long insertFinishedBooking(long bookerId, long itemId) {
+        long bookingId = 1_000_000_000L + itemId;
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, 'APPROVED')", bookingId, Timestamp.valueOf(start),
+                Timestamp.valueOf(start.plusDays(1)), itemId, bookerId);
+        return bookingId;
+    }
+
+    protected JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    protected long id(MockHttpServletResponse response) throws Exception {
+        return json(response).get("id").asLong();
+    }
+
+    protected static String bookingBody(long itemId, LocalDateTime start, LocalDateTime end) {
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}";
+    }
+}
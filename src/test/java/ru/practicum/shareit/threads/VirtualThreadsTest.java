@@ -0,0 +1,75 @@
+package ru.practicum.shareit.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "shareit.threads.virtual-pool-size=7",
+        "shareit.threads.virtual-connection-timeout=1500ms",
+        "shareit.threads.pinning-threshold=10ms"
+})
+class VirtualThreadsTest {
+    private static final Duration PINNED_EVENT_WAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ThreadPoolTaskExecutor matchingExecutor;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void connectionPoolIsResizedForVirtualThreads() throws Exception {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+
+        assertEquals(7, pool.getMaximumPoolSize());
+        assertEquals(1500, pool.getConnectionTimeout());
+    }
+
+    @Test
+    void matchingExecutorRunsOnVirtualThreads() throws Exception {
+        assertTrue(matchingExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void pinnedVirtualThreadIsCounted() throws Exception {
+        Object monitor = new Object();
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            // sleep внутри synchronized закрепляет виртуальный поток на несущем
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        pinned.join();
+
+        // события JFR доставляются асинхронно, с задержкой до секунды
+        long deadline = System.nanoTime() + PINNED_EVENT_WAIT.toNanos();
+        while (pinnedCount() == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertTrue(pinnedCount() > 0);
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.find("shareit.threads.pinned").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class TracingTest extends ApiTestSupport {
+
+    @Autowired
+    private TraceRingBuffer traceRingBuffer;
+    @Autowired
+    private TracingProperties tracingProperties;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void requestTraceRecordsTimePerLayer() throws Exception {
+        long owner = createUser("traced");
+        long itemId = createItem(owner, "drill");
+        String uri = "/items/" + itemId;
+
+        performOk(get(uri).header(USER_HEADER, owner));
+
+        RequestTrace trace = traceRingBuffer.slowest(tracingProperties.getBufferSize()).stream()
+                .filter(candidate -> candidate.getMethod().equals("GET") && candidate.getUri().equals(uri))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(200, trace.getStatus());
+        assertTrue(trace.getJdbcStatements() > 0);
+        assertTrue(trace.getExclusiveNanos(Layer.JDBC) > 0);
+        assertTrue(trace.getExclusiveNanos(Layer.CONTROLLER) > 0);
+        assertTrue(trace.getExclusiveNanos(Layer.SERIALIZATION) > 0);
+        assertTrue(trace.getTotalNanos() >= trace.getExclusiveNanos(Layer.JDBC));
+    }
+
+    @Test
+    void streamedResponseIsTracedUntilAsyncDispatchCompletes() throws Exception {
+        createUser("streamed");
+        String traceId = UUID.randomUUID().toString();
+
+        MvcResult started = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON)
+                        .header(TraceFilter.TRACE_ID_HEADER, traceId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        assertTrue(find(traceId).isEmpty(), "Трассировка записана до завершения потокового ответа");
+
+        mockMvc.perform(asyncDispatch(started));
+
+        RequestTrace trace = find(traceId).orElseThrow();
+        assertEquals(200, trace.getStatus());
+        assertTrue(trace.getExclusiveNanos(Layer.CONTROLLER) > 0);
+    }
+
+    private Optional<RequestTrace> find(String traceId) {
+        return traceRingBuffer.slowest(tracingProperties.getBufferSize()).stream()
+                .filter(trace -> trace.getTraceId().equals(traceId))
+                .findFirst();
+    }
+
+    @Test
+    void primaryDataSourceIsTraced() {
+        assertInstanceOf(TracingDataSource.class, dataSource);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserPagingTest extends ApiTestSupport {
+    // больше одного куска потоковой выгрузки (500 строк)
+    private static final int USERS = 501;
+    private static final long FIRST_ID = 5_000_001L;
+
+    private List<Long> ids;
+
+    @BeforeAll
+    void insertUsers() {
+        ids = LongStream.range(FIRST_ID, FIRST_ID + USERS).boxed().toList();
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", ids, ids.size(),
+                (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, "paged " + id);
+                    statement.setString(3, "paged-" + id + "@shareit.ru");
+                });
+    }
+
+    @Test
+    void pagesFollowKeysetCursor() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        long afterId = FIRST_ID - 1;
+        List<Long> page;
+        do {
+            page = userIds(performOk(get("/users").param("afterId", String.valueOf(afterId)).param("size", "200")));
+            assertTrue(page.size() <= 200);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1);
+            }
+        } while (!page.isEmpty());
+
+        assertEquals(ids, seen);
+    }
+
+    @Test
+    void requestWithoutParamsReturnsDefaultPage() throws Exception {
+        assertEquals(100, userIds(performOk(get("/users"))).size());
+        assertEquals(ids.subList(0, 100),
+                userIds(performOk(get("/users").param("afterId", String.valueOf(FIRST_ID - 1)))));
+    }
+
+    @Test
+    void nextLinkWalksFullList() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        MockHttpServletResponse response = performOk(get("/users"));
+        seen.addAll(userIds(response));
+        while (response.getHeader(HttpHeaders.LINK) != null) {
+            String link = response.getHeader(HttpHeaders.LINK);
+            assertTrue(link.endsWith(">; rel=\"next\""));
+            response = performOk(get(URI.create(link.substring(1, link.indexOf('>')))));
+            seen.addAll(userIds(response));
+        }
+
+        assertTrue(seen.containsAll(ids));
+        assertEquals(seen.stream().sorted().distinct().toList(), seen);
+    }
+
+    @Test
+    void invalidPageSizeIsRejected() throws Exception {
+        assertEquals(400, perform(get("/users").param("size", "0")).getStatus());
+        assertEquals(400, perform(get("/users").param("size", "1001")).getStatus());
+    }
+
+    @Test
+    void streamWritesOneUserPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/users").param("afterId", String.valueOf(FIRST_ID - 1))
+                .accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        String body = response.getContentAsString();
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(USERS, lines.length);
+        List<Long> streamed = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode user = objectMapper.readTree(line);
+            assertEquals("paged-" + user.get("id").asLong() + "@shareit.ru", user.get("email").asText());
+            streamed.add(user.get("id").asLong());
+        }
+        assertEquals(ids, streamed);
+    }
+
+    private List<Long> userIds(MockHttpServletResponse response) throws Exception {
+        List<Long> result = new ArrayList<>();
+        json(response).forEach(user -> result.add(user.get("id").asLong()));
+        return result;
+    }
+}
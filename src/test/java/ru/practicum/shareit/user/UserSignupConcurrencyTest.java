@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserSignupConcurrencyTest {
+    private static final int SIGNUPS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentSignupsWithSameEmailCreateExactlyOneUser() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(SIGNUPS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < SIGNUPS; i++) {
+            String email = i % 2 == 0 ? "race@shareit.ru" : "RACE@shareit.ru";
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userService.addNewUser(UserDto.builder().name("racer").email(email).build());
+                    created.incrementAndGet();
+                } catch (EmailAlreadyExistsException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(SIGNUPS - 1, conflicts.get());
+        assertEquals(SIGNUPS, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateToTakenEmailIsConflict() {
+        userService.addNewUser(UserDto.builder().name("first").email("taken@shareit.ru").build());
+        UserDto second = userService.addNewUser(UserDto.builder().name("second").email("free@shareit.ru").build());
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.updateUser(second.getId(),
+                UserDto.builder().email("Taken@shareit.ru").build()));
+    }
+}
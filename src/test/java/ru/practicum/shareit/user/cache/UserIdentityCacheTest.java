@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.support.ApiTestSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "shareit.matching.enabled=false")
+class UserIdentityCacheTest extends ApiTestSupport {
+
+    @Test
+    void deletedUserIsNotFoundAfterCommit() throws Exception {
+        long user = createUser("deleted");
+        performOk(get("/items").header(USER_HEADER, user));
+
+        performOk(delete("/users/{id}", user));
+
+        assertEquals(404, perform(get("/items").header(USER_HEADER, user)).getStatus());
+    }
+
+    @Test
+    void cachedUserDeletedElsewhereIsNotFoundOnWrite() throws Exception {
+        long user = createUser("stale");
+        performOk(get("/items").header(USER_HEADER, user));
+        // пользователь удалён в обход сервиса, например другим экземпляром приложения
+        jdbcTemplate.update("delete from users where id = ?", user);
+
+        assertEquals(404, perform(post("/items").header(USER_HEADER, user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}")).getStatus());
+        assertEquals(404, perform(get("/items").header(USER_HEADER, user)).getStatus());
+    }
+}